@@ -1,21 +1,53 @@
 import ap25.*;
 import static ap25.Color.*;
 import ap25.league.*;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.*;
 
 class Competition25 {
   final static long TIME_LIMIT_SECONDS = 60;
 
   public static void main(String args[]) {
-    Function<Color, Player[]> builder = (Color color) -> {
-      return new Player[] {
-          new p25x01.OurPlayer(color),
-          new ap25.league.RandomPlayer(color),
-          new p25x01.MyPlayer(color),
-      };
-    };
+    var opts = Arrays.asList(args);
+    if (opts.contains("single")) {
+      singleGame(args);
+      return;
+    }
 
-    var league = new League(5, builder, TIME_LIMIT_SECONDS);
+    var remote = opts.contains("--remote");
+    List<Function<Color, Player>> factories = List.of(
+        color -> remote ? new RemotePlayer("2400", "p25x01.OurPlayer", color)
+            : new p25x01.OurPlayer(color),
+        color -> new ap25.league.RandomPlayer(color),
+        color -> remote ? new RemotePlayer("PVS-AI", "p25x01.MyPlayer", color)
+            : new p25x01.MyPlayer(color));
+
+    var league = new League(5, factories, TIME_LIMIT_SECONDS);
+    league.setTimesFile(Path.of("league-times.properties"));
+    league.setVirtualThreads(opts.contains("--virtual"));
+    league.setCpuClock(opts.contains("--cpu-time"));
+    for (var opt: args) {
+      if (opt.startsWith("--parallelism="))
+        league.setParallelism(Integer.parseInt(opt.substring("--parallelism=".length())));
+      if (opt.startsWith("--standings="))
+        league.setStandingsInterval(Long.parseLong(opt.substring("--standings=".length())));
+      if (opt.startsWith("--sprt=")) {
+        var p = Arrays.stream(opt.substring("--sprt=".length()).split(","))
+            .mapToDouble(Double::parseDouble).toArray();
+        league.setSprt((int) p[0], (int) p[1], p.length > 2 ? p[2] : 0, p.length > 3 ? p[3] : 10,
+            p.length > 4 ? p[4] : 0.05, p.length > 5 ? p[5] : 0.05);
+      }
+      if (opt.startsWith("--seed="))
+        league.setSeed(Long.parseLong(opt.substring("--seed=".length())));
+      if (opt.startsWith("--csv="))
+        league.addCsvOutput(Path.of(opt.substring("--csv=".length())));
+      if (opt.startsWith("--jsonl="))
+        league.addJsonLinesOutput(Path.of(opt.substring("--jsonl=".length())));
+      if (opt.startsWith("--gamelog="))
+        league.addGameLog(Path.of(opt.substring("--gamelog=".length())));
+    }
     league.run();
   }
 
@@ -15,6 +15,7 @@ public interface Board {
   void foul(Color color);
   int score();
   List<Move> findLegalMoves(Color color);
+  default boolean isLegal(Move move) { return findLegalMoves(move.getColor()).contains(move); }
   Board placed(Move move);
   Board flipped();
   Board clone();
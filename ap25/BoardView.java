@@ -0,0 +1,50 @@
+package ap25;
+
+import java.util.List;
+
+/**
+ * Read-only view of a board that is never mutated after it is shared.
+ * Reading costs nothing; clone() is the only way to get a mutable copy.
+ */
+public final class BoardView implements Board {
+  final Board board;
+
+  BoardView(Board board) {
+    this.board = board;
+  }
+
+  public static BoardView of(Board board) {
+    return board instanceof BoardView ? (BoardView) board : new BoardView(board);
+  }
+
+  public Color get(int k) { return this.board.get(k); }
+  public Move getMove() { return this.board.getMove(); }
+  public Color getTurn() { return this.board.getTurn(); }
+  public int count(Color color) { return this.board.count(color); }
+  public boolean isEnd() { return this.board.isEnd(); }
+  public Color winner() { return this.board.winner(); }
+  public int score() { return this.board.score(); }
+
+  public List<Move> findLegalMoves(Color color) {
+    return this.board.findLegalMoves(color);
+  }
+
+  public void foul(Color color) {
+    throw new UnsupportedOperationException("read-only board");
+  }
+
+  public boolean isLegal(Move move) { return this.board.isLegal(move); }
+
+  public Board placed(Move move) { return this.board.placed(move); }
+  public Board flipped() { return this.board.flipped(); }
+  public Board clone() { return this.board.clone(); }
+
+  // Only views compare equal to views, so equality stays symmetric with the
+  // board classes, whose equals() accepts only their own type.
+  public boolean equals(Object obj) {
+    return obj instanceof BoardView && this.board.equals(((BoardView) obj).board);
+  }
+
+  public int hashCode() { return this.board.hashCode(); }
+  public String toString() { return this.board.toString(); }
+}
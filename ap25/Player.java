@@ -1,9 +1,12 @@
 package ap25;
 
+import java.util.Map;
+
 public abstract class Player {
   String name;
   Color color;
   Board board;
+  long timeLimit;
 
   public Player(String name, Color color) {
     this.name = name;
@@ -11,7 +14,11 @@ public abstract class Player {
   }
 
   public void setBoard(Board board) { this.board = board; }
+  public void setTimeLimit(long millis) { this.timeLimit = millis; }
+  public long getTimeLimit() { return this.timeLimit; }
   public Color getColor() { return this.color; }
   public String toString() { return this.name; }
   public Move think(Board board) { return null; }
+  public void endGame() {}
+  public Map<String, Long> getStats() { return Map.of(); }
 }
@@ -0,0 +1,59 @@
+package ap25.league;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Queues events on a lock-free queue and writes them from one thread,
+ * flushing once per drained batch, so game threads never wait on I/O.
+ */
+class AsyncSink implements ResultSink {
+  static final long BATCH_INTERVAL_NANOS = 10_000_000;
+
+  final ResultSink sink;
+  final ConcurrentLinkedQueue<Consumer<ResultSink>> queue = new ConcurrentLinkedQueue<>();
+  final Thread writer;
+  volatile boolean closed;
+
+  AsyncSink(ResultSink sink) {
+    this.sink = sink;
+    this.writer = new Thread(this::drain, "result-sink");
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  public void game(GameResult result) { this.queue.offer(s -> s.game(result)); }
+  public void info(String text) { this.queue.offer(s -> s.info(text)); }
+  public void error(String text) { this.queue.offer(s -> s.error(text)); }
+
+  void drain() {
+    while (true) {
+      var last = this.closed;
+      var written = false;
+      Consumer<ResultSink> event;
+      while ((event = this.queue.poll()) != null) {
+        try {
+          event.accept(this.sink);
+        } catch (RuntimeException e) {
+          e.printStackTrace();
+        }
+        written = true;
+      }
+      if (written) this.sink.flush();
+      if (last) return;
+      LockSupport.parkNanos(BATCH_INTERVAL_NANOS);
+    }
+  }
+
+  public void close() {
+    this.closed = true;
+    LockSupport.unpark(this.writer);
+    try {
+      this.writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    this.sink.close();
+  }
+}
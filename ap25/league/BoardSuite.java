@@ -0,0 +1,92 @@
+package ap25.league;
+
+import static ap25.Board.LENGTH;
+import static ap25.Board.SIZE;
+import static ap25.Color.BLOCK;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import ap25.Move;
+
+/**
+ * Reproducible board suites: the plain board followed by block layouts
+ * drawn from a seeded Random. A layout is skipped when a symmetry of the
+ * board maps it onto one already in the suite. Only the symmetries that
+ * also map the starting discs onto themselves are used; the other four
+ * swap the colors of the center discs and so give a different game.
+ */
+public class BoardSuite {
+  static final List<Integer> CANDIDATES = List.of(0, 1, 2, 3, 4, 5, 6, 12, 18, 24, 30);
+  static final int MAX_ATTEMPTS = 10000;
+  static final int[][] SYMMETRIES = symmetries();
+
+  public static List<OfficialBoard> generate(int boardNum, long seed) {
+    var rand = new Random(seed);
+    var boards = new ArrayList<OfficialBoard>();
+    var seen = new HashSet<Long>();
+    boards.add(new OfficialBoard());
+    seen.add(0L);
+
+    for (int i = 0; i < MAX_ATTEMPTS && boards.size() < boardNum; i++) {
+      var b = makeBoard(rand);
+      if (seen.add(canonical(blocks(b)))) boards.add(b);
+    }
+    return boards;
+  }
+
+  static OfficialBoard makeBoard(Random rand) {
+    List<Integer> xs = new ArrayList<>(CANDIDATES);
+    Collections.shuffle(xs, rand);
+    var b = new OfficialBoard();
+
+    for (var x: xs.subList(0, rand.nextInt(3) + 1)) {
+      b.set(x, BLOCK);
+    }
+
+    return b;
+  }
+
+  static long blocks(OfficialBoard b) {
+    var mask = 0L;
+    for (int k = 0; k < LENGTH; k++) {
+      if (b.get(k) == BLOCK) mask |= 1L << k;
+    }
+    return mask;
+  }
+
+  static long canonical(long mask) {
+    var min = Long.MAX_VALUE;
+    for (var p: SYMMETRIES) {
+      min = Math.min(min, transform(mask, p));
+    }
+    return min;
+  }
+
+  static long transform(long mask, int[] p) {
+    var t = 0L;
+    for (int k = 0; k < LENGTH; k++) {
+      if ((mask & (1L << k)) != 0) t |= 1L << p[k];
+    }
+    return t;
+  }
+
+  static int[][] symmetries() {
+    var start = new OfficialBoard();
+    var result = new ArrayList<int[]>();
+    for (int s = 0; s < 8; s++) {
+      var p = new int[LENGTH];
+      var keepsStart = true;
+      for (int k = 0; k < LENGTH; k++) {
+        int x = k % SIZE, y = k / SIZE;
+        if ((s & 1) != 0) x = SIZE - 1 - x;
+        if ((s & 2) != 0) y = SIZE - 1 - y;
+        p[k] = (s & 4) != 0 ? Move.index(y, x) : Move.index(x, y);
+        keepsStart &= start.get(k) == start.get(p[k]);
+      }
+      if (keepsStart) result.add(p);
+    }
+    return result.toArray(int[][]::new);
+  }
+}
@@ -0,0 +1,127 @@
+package ap25.league;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+abstract class FileSink implements ResultSink {
+  final BufferedWriter out;
+
+  static FileSink csv(Path path) {
+    return new CsvSink(path);
+  }
+
+  static FileSink jsonLines(Path path) {
+    return new JsonLinesSink(path);
+  }
+
+  FileSink(Path path) {
+    try {
+      this.out = Files.newBufferedWriter(path);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  void write(String line) {
+    try {
+      this.out.write(line);
+      this.out.newLine();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public void flush() {
+    try {
+      this.out.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public void close() {
+    try {
+      this.out.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
+
+class CsvSink extends FileSink {
+  CsvSink(Path path) {
+    super(path);
+    write("black,white,winner,score,black_time,white_time,black_wall,white_wall,black_cpu,white_cpu,"
+        + "black_p50,black_p90,black_p99,black_max,white_p50,white_p90,white_p99,white_max,"
+        + "black_left,white_left,black_alloc,white_alloc,gc_ms,moves");
+  }
+
+  public void game(GameResult r) {
+    write(String.format(Locale.ROOT, "%s,%s,%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%s,%s,%.3f,%.3f,%d,%d,%d,%s",
+        quote(r.black), quote(r.white), r.winner == null ? "" : quote(r.winner), r.score,
+        r.blackTime, r.whiteTime, r.blackWall, r.whiteWall, r.blackCpu, r.whiteCpu,
+        latency(r.blackLatency), latency(r.whiteLatency), r.blackLeft, r.whiteLeft,
+        r.blackAllocated, r.whiteAllocated, r.gcMillis, r.moves));
+  }
+
+  static String latency(Histogram h) {
+    return String.format(Locale.ROOT, "%.3f,%.3f,%.3f,%.3f",
+        h.seconds(0.5), h.seconds(0.9), h.seconds(0.99), h.maxSeconds());
+  }
+
+  public void info(String text) {}
+  public void error(String text) {}
+
+  static String quote(String s) {
+    if (s.contains(",") == false && s.contains("\"") == false) return s;
+    return "\"" + s.replace("\"", "\"\"") + "\"";
+  }
+}
+
+class JsonLinesSink extends FileSink {
+  JsonLinesSink(Path path) {
+    super(path);
+  }
+
+  public void game(GameResult r) {
+    write(String.format(Locale.ROOT, "{\"type\":\"game\",\"black\":%s,\"white\":%s,\"winner\":%s,\"score\":%d,"
+        + "\"time\":[%.3f,%.3f],\"wall\":[%.3f,%.3f],\"cpu\":[%.3f,%.3f],"
+        + "\"p50\":[%.3f,%.3f],\"p90\":[%.3f,%.3f],\"p99\":[%.3f,%.3f],\"max\":[%.3f,%.3f],"
+        + "\"left\":[%.3f,%.3f],\"alloc\":[%d,%d],\"gcMillis\":%d,\"moves\":%s}",
+        quote(r.black), quote(r.white), r.winner == null ? "null" : quote(r.winner), r.score,
+        r.blackTime, r.whiteTime, r.blackWall, r.whiteWall, r.blackCpu, r.whiteCpu,
+        r.blackLatency.seconds(0.5), r.whiteLatency.seconds(0.5),
+        r.blackLatency.seconds(0.9), r.whiteLatency.seconds(0.9),
+        r.blackLatency.seconds(0.99), r.whiteLatency.seconds(0.99),
+        r.blackLatency.maxSeconds(), r.whiteLatency.maxSeconds(),
+        r.blackLeft, r.whiteLeft, r.blackAllocated, r.whiteAllocated, r.gcMillis, quote(r.moves)));
+  }
+
+  public void info(String text) {
+    write("{\"type\":\"info\",\"text\":" + quote(text) + "}");
+  }
+
+  public void error(String text) {
+    write("{\"type\":\"error\",\"text\":" + quote(text) + "}");
+  }
+
+  static String quote(String s) {
+    var buf = new StringBuilder("\"");
+    for (var c: s.toCharArray()) {
+      switch (c) {
+      case '"': buf.append("\\\""); break;
+      case '\\': buf.append("\\\\"); break;
+      case '\n': buf.append("\\n"); break;
+      case '\t': buf.append("\\t"); break;
+      default:
+        if (c < 0x20) buf.append(String.format("\\u%04x", (int) c));
+        else buf.append(c);
+      }
+    }
+    return buf.append('"').toString();
+  }
+}
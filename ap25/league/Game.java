@@ -2,26 +2,45 @@ package ap25.league;
 
 import static ap25.Color.BLACK;
 import static ap25.Color.WHITE;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 import ap25.Board;
+import ap25.BoardView;
 import ap25.Color;
 import ap25.Move;
 import ap25.Player;
 
 public class Game {
+  Board start;
   Board board;
   Player black;
   Player white;
   Map<Color, Player> players;
   List<Move> moves = new ArrayList<Move>();
+  List<Float> moveTimes = new ArrayList<>();
   Map<Color, Float> times = new HashMap<>(Map.of(BLACK, 0f, WHITE, 0f));
+  Map<Color, Float> wallTimes = new HashMap<>(Map.of(BLACK, 0f, WHITE, 0f));
+  Map<Color, Float> cpuTimes = new HashMap<>(Map.of(BLACK, 0f, WHITE, 0f));
+  Map<Color, Histogram> latencies = Map.of(BLACK, new Histogram(), WHITE, new Histogram());
+  // bytes allocated by the thinking thread, -1 once the JVM cannot tell
+  Map<Color, Long> allocated = new HashMap<>(Map.of(BLACK, 0L, WHITE, 0L));
+  long gcMillis;
   long timeLimit;
+  boolean cpuClock;
+  Semaphore thinkPermits;
+  ResultSink sink = ResultSink.console();
+
+  static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
 
   public Game(Board board, Player black, Player white, long timeLimit) {
+    this.start = board.clone();
     this.board = board.clone();
     this.black = black;
     this.white = white;
@@ -30,28 +49,39 @@ public class Game {
   }
 
   public void play() {
-    this.players.entrySet().forEach(i -> setBoard(i, this.board.clone()));
+    long gc = gcMillis();
+    this.players.values().forEach(p -> p.setTimeLimit(this.timeLimit * 1000));
+    this.players.entrySet().forEach(i -> setBoard(i, BoardView.of(this.board)));
 
     while (this.board.isEnd() == false) {
       var turn = this.board.getTurn();
       var player = this.players.get(turn);
 
       Throwable error = null;
-      long tm = System.currentTimeMillis();
+      acquireThink();
+      long tm = System.nanoTime();
+      long cpu = cpuNanos();
+      long bytes = allocatedBytes();
       Move move;
 
       // play
       try {
-        move = player.think(this.board.clone()).colored(turn);
+        move = player.think(BoardView.of(this.board)).colored(turn);
       } catch (Throwable e) {
         error = e;
         move = Move.ofError(turn);
       }
 
       // record time
-      tm = System.currentTimeMillis() - tm;
-      final var t = (float) Math.max(tm, 1) / 1000.f;
-      this.times.compute(turn, (k, v) -> v + t);
+      tm = System.nanoTime() - tm;
+      cpu = elapsedCpu(cpu);
+      bytes = allocatedSince(bytes);
+      releaseThink();
+      var charged = charge(turn, tm, cpu, 0.001f);
+      moveTimes.add(charged);
+      latencies.get(turn).recordSeconds(charged);
+      final var b = bytes;
+      allocated.compute(turn, (k, v) -> v < 0 || b < 0 ? -1 : v + b);
 
       // check
       move = check(turn, move, error);
@@ -61,64 +91,150 @@ public class Game {
       if (move.isLegal()) {
         this.board = this.board.placed(move);
       } else {
+        // players may still hold views of the current board
+        this.board = this.board.clone();
         this.board.foul(turn);
         break;
       }
     }
 
+    this.gcMillis = gcMillis() - gc;
     printResult(this.board, moves);
+    close();
+  }
+
+  // Players holding outside resources, such as a RemotePlayer process or pooled search tables, release them here.
+  void close() {
+    for (var p: this.players.values()) {
+      try {
+        p.endGame();
+      } catch (Exception e) {
+        this.sink.error(String.format("endGame failed: %s %s", p, e));
+      }
+    }
+  }
+
+  public void setCpuClock(boolean cpuClock) {
+    this.cpuClock = cpuClock;
+  }
+
+  static long cpuNanos() {
+    try {
+      return THREADS.getCurrentThreadCpuTime();
+    } catch (UnsupportedOperationException e) {
+      return -1;
+    }
+  }
+
+  static long elapsedCpu(long start) {
+    var now = cpuNanos();
+    return start < 0 || now < 0 ? -1 : now - start;
+  }
+
+  // Only HotSpot-style JVMs count allocation per thread; -1 elsewhere.
+  static long allocatedBytes() {
+    try {
+      if (THREADS instanceof com.sun.management.ThreadMXBean t && t.isThreadAllocatedMemoryEnabled()) {
+        return t.getCurrentThreadAllocatedBytes();
+      }
+    } catch (UnsupportedOperationException e) {
+    }
+    return -1;
+  }
+
+  static long allocatedSince(long start) {
+    var now = allocatedBytes();
+    return start < 0 || now < 0 ? -1 : now - start;
+  }
+
+  // Collection time of the whole JVM, so concurrent games share each pause.
+  static long gcMillis() {
+    long millis = 0;
+    for (var gc: ManagementFactory.getGarbageCollectorMXBeans()) {
+      millis += Math.max(gc.getCollectionTime(), 0);
+    }
+    return millis;
+  }
+
+  // Charges either clock against the limit; CPU falls back to wall time when unsupported.
+  float charge(Color color, long wallNanos, long cpuNanos, float min) {
+    final var w = Math.max(wallNanos / 1e9f, min);
+    final var c = cpuNanos < 0 ? w : Math.max(cpuNanos / 1e9f, min);
+    final var t = this.cpuClock ? c : w;
+    this.wallTimes.compute(color, (k, v) -> v + w);
+    this.cpuTimes.compute(color, (k, v) -> v + c);
+    this.times.compute(color, (k, v) -> v + t);
+    return t;
+  }
+
+  public void setThinkPermits(Semaphore permits) {
+    this.thinkPermits = permits;
+  }
+
+  // Interruptible, so a scheduler that gives up does not wait for queued games.
+  void acquireThink() {
+    if (this.thinkPermits == null) return;
+    try {
+      this.thinkPermits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      close();
+      throw new CancellationException("game interrupted while waiting to think");
+    }
+  }
+
+  void releaseThink() {
+    if (this.thinkPermits != null) this.thinkPermits.release();
   }
 
   void setBoard(Map.Entry<Color, Player> entry, Board board) {
     var color = entry.getKey();
     var player = entry.getValue();
-    long tm = System.currentTimeMillis();
+    long tm = System.nanoTime();
+    long cpu = cpuNanos();
     try {
       player.setBoard(board);
     } catch (Throwable e) {
-      System.err.printf("setBoard failed: %s, %s\n", color, player);
-      System.err.println(board);
+      this.sink.error(String.format("setBoard failed: %s, %s%n%s", color, player, board));
     }
-    tm = System.currentTimeMillis() - tm;
-    final var t = (float) tm / 1000.f;
-    this.times.compute(color, (k, v) -> v + t);
-}
+    tm = System.nanoTime() - tm;
+    charge(color, tm, elapsedCpu(cpu), 0);
+  }
 
   Move check(Color turn, Move move, Throwable error) {
     if (move.isError()) {
-      System.err.printf("error: %s %s\n", turn, error);
-      System.err.println(board);
+      this.sink.error(String.format("error: %s %s%n%s", turn, error, board));
       return move;
     }
 
     if (this.times.get(turn) > this.timeLimit) {
-      System.err.printf("timeout: %s %.2f\n", turn, this.times.get(turn));
-      System.err.println(board);
+      this.sink.error(String.format("timeout: %s %.2f%n%s", turn, this.times.get(turn), board));
       return Move.ofTimeout(turn);
     }
 
-    var legals = board.findLegalMoves(turn);
-    if (move == null || legals.contains(move) == false) {
-      System.err.printf("illegal move: %s %s\n", turn, move);
-      System.err.println(board);
+    if (move == null || board.isLegal(move) == false) {
+      this.sink.error(String.format("illegal move: %s %s%n%s", turn, move, board));
       return Move.ofIllegal(turn);
     }
 
     return move;
   }
 
+  // Seconds of the limit the player had not used, negative after a timeout.
+  float timeLeft(Color color) {
+    return this.timeLimit - this.times.get(color);
+  }
+
   public Player getWinner(Board board) {
     return this.players.get(board.winner());
   }
 
-  public void printResult(Board board, List<Move> moves) {
-    var result = String.format("%5s%-9s", "", "draw");
-    var score = Math.abs(board.score());
-    if (score > 0)
-      result = String.format("%-4s won by %-2d", getWinner(board), score);
+  public void setSink(ResultSink sink) {
+    this.sink = sink;
+  }
 
-    var s = toString() + " -> " + result + "\t| " + toString(moves);
-    System.out.println(s);
+  public void printResult(Board board, List<Move> moves) {
+    this.sink.game(new GameResult(this, board, moves));
   }
 
   public String toString() {
@@ -0,0 +1,207 @@
+package ap25.league;
+
+import static ap25.Board.LENGTH;
+import static ap25.Color.BLOCK;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import ap25.Color;
+import ap25.Move;
+
+/**
+ * Memory-mapped view of a log written by GameLogSink. Opening it scans
+ * the record lengths once; after that any game can be read by index from
+ * any thread, since only absolute reads are used. A trailing record cut
+ * short by a crash is ignored. One mapping covers at most 2 GB.
+ *
+ * As a program it replays every game in parallel and checks each move
+ * and the final score: java ap25.league.GameLogReader LOG
+ */
+public class GameLogReader implements AutoCloseable {
+  public static class Entry {
+    public final String black;
+    public final String white;
+    public final int score;
+    public final long blocks;
+    final byte[] moves;
+    final int[] millis;
+
+    Entry(String black, String white, int score, long blocks, byte[] moves, int[] millis) {
+      this.black = black;
+      this.white = white;
+      this.score = score;
+      this.blocks = blocks;
+      this.moves = moves;
+      this.millis = millis;
+    }
+
+    public int size() {
+      return this.moves.length;
+    }
+
+    public int millis(int i) {
+      return this.millis[i];
+    }
+
+    public OfficialBoard startBoard() {
+      var b = new OfficialBoard();
+      for (int k = 0; k < LENGTH; k++) {
+        if ((this.blocks & (1L << k)) != 0) b.set(k, BLOCK);
+      }
+      return b;
+    }
+
+    /** Plays the moves from the start board, failing on a move the rules do not allow. */
+    public OfficialBoard replay() {
+      var board = startBoard();
+      for (int i = 0; i < this.moves.length; i++) {
+        var turn = board.getTurn();
+        var move = decode(this.moves[i] & 0xFF, turn);
+        if (move.isFoul()) {
+          board.foul(turn);
+          break;
+        }
+        if (board.isLegal(move) == false) {
+          throw new IllegalStateException("illegal move " + i + ": " + move);
+        }
+        board = board.placed(move);
+      }
+      return board;
+    }
+
+    /** Replays the game and checks that it ends where the log says. */
+    public boolean verify() {
+      try {
+        var board = replay();
+        var last = this.moves.length == 0 ? 0 : this.moves[this.moves.length - 1] & 0xFF;
+        var foul = last >= GameLogSink.ERROR && last != GameLogSink.PASS;
+        return (foul || board.isEnd()) && board.score() == this.score;
+      } catch (RuntimeException e) {
+        return false;
+      }
+    }
+
+    static Move decode(int code, Color turn) {
+      switch (code) {
+      case GameLogSink.PASS: return Move.ofPass(turn);
+      case GameLogSink.TIMEOUT: return Move.ofTimeout(turn);
+      case GameLogSink.ILLEGAL: return Move.ofIllegal(turn);
+      case GameLogSink.ERROR: return Move.ofError(turn);
+      default: return Move.of(code, turn);
+      }
+    }
+  }
+
+  final FileChannel channel;
+  final MappedByteBuffer buf;
+  final int[] offsets;
+
+  public GameLogReader(Path path) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    var size = this.channel.size();
+    if (size > Integer.MAX_VALUE) throw new IOException("log larger than 2 GB: " + path);
+    this.buf = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+    var magic = new byte[GameLogSink.MAGIC.length];
+    if (size < magic.length) throw new IOException("not a game log: " + path);
+    this.buf.get(0, magic);
+    if (Arrays.equals(magic, GameLogSink.MAGIC) == false) {
+      throw new IOException("not a game log: " + path);
+    }
+
+    var offsets = new int[1024];
+    var n = 0;
+    var pos = magic.length;
+    while (pos + 2 <= size) {
+      var length = this.buf.getShort(pos) & 0xFFFF;
+      if (pos + 2 + length > size) break;
+      if (n == offsets.length) offsets = Arrays.copyOf(offsets, n * 2);
+      offsets[n++] = pos;
+      pos += 2 + length;
+    }
+    this.offsets = Arrays.copyOf(offsets, n);
+  }
+
+  public int size() {
+    return this.offsets.length;
+  }
+
+  public Entry get(int i) {
+    var pos = this.offsets[i] + 2;
+    var n = this.buf.get(pos) & 0xFF;
+    var score = (int) this.buf.get(pos + 1);
+    var blocks = this.buf.getLong(pos + 2);
+    pos += 10;
+    var black = string(pos);
+    pos += 1 + (this.buf.get(pos) & 0xFF);
+    var white = string(pos);
+    pos += 1 + (this.buf.get(pos) & 0xFF);
+    var moves = new byte[n];
+    this.buf.get(pos, moves);
+    pos += n;
+    var millis = new int[n];
+    for (int j = 0; j < n; j++) {
+      millis[j] = this.buf.getShort(pos + 2 * j) & 0xFFFF;
+    }
+    return new Entry(black, white, score, blocks, moves, millis);
+  }
+
+  String string(int pos) {
+    var bytes = new byte[this.buf.get(pos) & 0xFF];
+    this.buf.get(pos + 1, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /** All games in log order; call parallel() to spread them over the common pool. */
+  public Stream<Entry> stream() {
+    return IntStream.range(0, size()).mapToObj(this::get);
+  }
+
+  public void close() throws IOException {
+    this.channel.close();
+  }
+
+  public static void main(String[] args) throws Exception {
+    try (var log = new GameLogReader(Path.of(args[0]))) {
+      var failed = new LongAdder();
+      var players = new ConcurrentHashMap<String, LongAdder[]>();
+      long tm = System.nanoTime();
+
+      log.stream().parallel().forEach(e -> {
+        if (e.verify() == false) failed.increment();
+        count(players, e.black, e.score, e, 0);
+        count(players, e.white, -e.score, e, 1);
+      });
+
+      tm = System.nanoTime() - tm;
+      System.out.printf("%d games, %d failed verification, %.0f games/s%n",
+          log.size(), failed.sum(), log.size() / Math.max(tm / 1e9, 1e-9));
+      Map<String, LongAdder[]> sorted = new TreeMap<>(players);
+      sorted.forEach((name, c) -> System.out.printf("%4s| %6d games | %5.1f%% wins | %7.1f ms/move%n",
+          name, c[0].sum(), 100.0 * c[1].sum() / c[0].sum(),
+          c[3].sum() == 0 ? 0 : (double) c[2].sum() / c[3].sum()));
+    }
+  }
+
+  // games, wins, millis, moves
+  static void count(Map<String, LongAdder[]> players, String name, int score, Entry e, int side) {
+    var c = players.computeIfAbsent(name, k -> new LongAdder[] {
+        new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder() });
+    c[0].increment();
+    if (score > 0) c[1].increment();
+    for (int i = side; i < e.size(); i += 2) {
+      c[2].add(e.millis(i));
+      c[3].increment();
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package ap25.league;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import ap25.Move;
+
+/**
+ * Appends every game to a binary log that GameLogReader can map. The
+ * file starts with MAGIC, then one variable-length record per game:
+ *
+ * <pre>
+ *   u16    length of the rest of the record
+ *   u8     n, number of moves
+ *   i8     final score from black's side, as Board.score
+ *   i64    block mask, bit k for square k
+ *   u8+    black name, then white name, each as length and UTF-8 bytes
+ *   n      moves: square 0-35, or PASS, TIMEOUT, ILLEGAL, ERROR below
+ *   n*u16  milliseconds charged for each move, capped at 65535
+ * </pre>
+ *
+ * Multi-byte values are big-endian.
+ */
+class GameLogSink implements ResultSink {
+  static final byte[] MAGIC = "AP25GLG1".getBytes(StandardCharsets.US_ASCII);
+  static final int PASS = 0xFF;
+  static final int TIMEOUT = 0xFE;
+  static final int ILLEGAL = 0xFD;
+  static final int ERROR = 0xFC;
+  static final int BUFFER_SIZE = 1 << 16;
+
+  final FileChannel channel;
+  final ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+
+  GameLogSink(Path path) {
+    try {
+      this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+      if (this.channel.size() == 0) this.buf.put(MAGIC);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public void game(GameResult r) {
+    var black = r.black.getBytes(StandardCharsets.UTF_8);
+    var white = r.white.getBytes(StandardCharsets.UTF_8);
+    var n = r.moveList.size();
+    var length = 1 + 1 + 8 + 1 + black.length + 1 + white.length + n * 3;
+    if (this.buf.remaining() < 2 + length) flush();
+
+    this.buf.putShort((short) length);
+    this.buf.put((byte) n);
+    this.buf.put((byte) r.score);
+    this.buf.putLong(r.blocks);
+    this.buf.put((byte) black.length).put(black);
+    this.buf.put((byte) white.length).put(white);
+    for (var m: r.moveList) {
+      this.buf.put((byte) encode(m));
+    }
+    for (int i = 0; i < n; i++) {
+      var ms = i < r.moveTimes.length ? Math.round(r.moveTimes[i] * 1000) : 0;
+      this.buf.putShort((short) Math.min(ms, 0xFFFF));
+    }
+  }
+
+  static int encode(Move m) {
+    if (m.isPass()) return PASS;
+    if (m.isTimeout()) return TIMEOUT;
+    if (m.isIllega()) return ILLEGAL;
+    if (m.isError()) return ERROR;
+    return m.getIndex();
+  }
+
+  public void info(String text) {}
+  public void error(String text) {}
+
+  public void flush() {
+    this.buf.flip();
+    try {
+      while (this.buf.hasRemaining()) this.channel.write(this.buf);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      this.buf.clear();
+    }
+  }
+
+  public void close() {
+    flush();
+    try {
+      this.channel.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
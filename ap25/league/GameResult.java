@@ -0,0 +1,75 @@
+package ap25.league;
+
+import static ap25.Board.LENGTH;
+import static ap25.Color.BLACK;
+import static ap25.Color.BLOCK;
+import static ap25.Color.WHITE;
+import java.util.List;
+import ap25.Board;
+import ap25.Move;
+
+public class GameResult {
+  public final String black;
+  public final String white;
+  public final String winner;
+  public final int score;
+  public final String moves;
+  public final float blackTime;
+  public final float whiteTime;
+  public final float blackWall;
+  public final float whiteWall;
+  public final float blackCpu;
+  public final float whiteCpu;
+  public final float blackLeft;
+  public final float whiteLeft;
+  public final long blackAllocated;
+  public final long whiteAllocated;
+  public final long gcMillis;
+  final Histogram blackLatency;
+  final Histogram whiteLatency;
+  final long blocks;
+  final List<Move> moveList;
+  final float[] moveTimes;
+
+  GameResult(Game game, Board board, List<Move> moves) {
+    this.black = game.black.toString();
+    this.white = game.white.toString();
+    var winner = game.getWinner(board);
+    this.winner = winner == null ? null : winner.toString();
+    this.score = board.score();
+    this.moves = Game.toString(moves);
+    this.blackTime = game.times.get(BLACK);
+    this.whiteTime = game.times.get(WHITE);
+    this.blackWall = game.wallTimes.get(BLACK);
+    this.whiteWall = game.wallTimes.get(WHITE);
+    this.blackCpu = game.cpuTimes.get(BLACK);
+    this.whiteCpu = game.cpuTimes.get(WHITE);
+    this.blackLeft = game.timeLeft(BLACK);
+    this.whiteLeft = game.timeLeft(WHITE);
+    this.blackLatency = game.latencies.get(BLACK);
+    this.blackAllocated = game.allocated.get(BLACK);
+    this.whiteAllocated = game.allocated.get(WHITE);
+    this.gcMillis = game.gcMillis;
+    this.whiteLatency = game.latencies.get(WHITE);
+    var blocks = 0L;
+    for (int k = 0; k < LENGTH; k++) {
+      if (game.start.get(k) == BLOCK) blocks |= 1L << k;
+    }
+    this.blocks = blocks;
+    this.moveList = List.copyOf(moves);
+    this.moveTimes = new float[game.moveTimes.size()];
+    for (int i = 0; i < this.moveTimes.length; i++) {
+      this.moveTimes[i] = game.moveTimes.get(i);
+    }
+  }
+
+  public String toString() {
+    var result = String.format("%5s%-9s", "", "draw");
+    var score = Math.abs(this.score);
+    if (score > 0)
+      result = String.format("%-4s won by %-2d", this.winner, score);
+
+    var players = String.format("%4s vs %4s", this.black, this.white);
+    return players + " -> " + result + "\t| " + this.moves;
+  }
+}
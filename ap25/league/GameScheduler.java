@@ -0,0 +1,203 @@
+package ap25.league;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs each game as its own task, longest expected game first.
+ * A game's expected duration is the sum of both players' average
+ * seconds per game, learned as games finish and optionally persisted.
+ *
+ * In VIRTUAL mode up to GAMES_PER_PERMIT * parallelism games are in
+ * flight, each worker on its own virtual thread taking games in the same
+ * order, and a fair semaphore caps how many think() calls run at once;
+ * waiting for a permit is not charged to the player's clock.
+ */
+class GameScheduler {
+  static class Task {
+    final Match match;
+    final int board;
+    final String black;
+    final String white;
+
+    Task(Match match, int board, String black, String white) {
+      this.match = match;
+      this.board = board;
+      this.black = black;
+      this.white = white;
+    }
+  }
+
+  public enum Mode { FORK_JOIN, VIRTUAL }
+
+  static final int GAMES_PER_PERMIT = 4;
+
+  final Mode mode;
+  final int parallelism;
+  final List<Task> pending = new ArrayList<>();
+  final Map<String, double[]> durations = new HashMap<>();
+  double defaultDuration;
+  volatile boolean stopped;
+
+  GameScheduler(Mode mode, int parallelism, double defaultDuration) {
+    this.mode = mode;
+    this.parallelism = parallelism;
+    this.defaultDuration = defaultDuration;
+  }
+
+  void add(Match match, int board, String black, String white) {
+    this.pending.add(new Task(match, board, black, white));
+  }
+
+  void run() {
+    if (this.mode == Mode.VIRTUAL) {
+      runVirtual();
+    } else {
+      runForkJoin();
+    }
+  }
+
+  /** Hands out no more games; games already being played finish. */
+  void stop() {
+    this.stopped = true;
+  }
+
+  void runForkJoin() {
+    var pool = new ForkJoinPool(this.parallelism);
+    try {
+      var workers = new ArrayList<Future<?>>();
+      for (int i = 0; i < this.parallelism; i++) {
+        workers.add(pool.submit(() -> {
+          Task task;
+          while ((task = next()) != null) play(task, null);
+        }));
+      }
+      for (var w: workers) w.get();
+    } catch (Exception e) {
+      throw abort(pool, e);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  void runVirtual() {
+    var permits = new Semaphore(this.parallelism, true);
+    var pool = newVirtualThreadExecutor();
+    try {
+      var workers = new ArrayList<Future<?>>();
+      for (int i = 0; i < GAMES_PER_PERMIT * this.parallelism; i++) {
+        workers.add(pool.submit(() -> {
+          Task task;
+          while ((task = next()) != null) play(task, permits);
+        }));
+      }
+      for (var w: workers) w.get();
+    } catch (Exception e) {
+      throw abort(pool, e);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  // A failed game must not leave others running: they would keep writing to
+  // the match tables and sinks after run() has given up. Cancels the rest,
+  // waits for games in progress and returns the failure to rethrow.
+  RuntimeException abort(ExecutorService pool, Exception e) {
+    stop();
+    pool.shutdownNow();
+    try {
+      pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    }
+    var cause = e instanceof ExecutionException ? e.getCause() : e;
+    if (cause instanceof RuntimeException r) return r;
+    if (cause instanceof Error err) throw err;
+    return new IllegalStateException("game failed", cause);
+  }
+
+  void play(Task task, Semaphore permits) {
+    if (this.stopped) return;
+    var game = task.match.newGame(task.board);
+    game.setThinkPermits(permits);
+    game.play();
+    task.match.update(game);
+    record(task.black, game.times.get(ap25.Color.BLACK));
+    record(task.white, game.times.get(ap25.Color.WHITE));
+  }
+
+  // Executors.newVirtualThreadPerTaskExecutor is only available on Java 21+.
+  static ExecutorService newVirtualThreadExecutor() {
+    try {
+      var m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) m.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      System.err.println("virtual threads unavailable, using platform threads");
+      return Executors.newCachedThreadPool();
+    }
+  }
+
+  synchronized Task next() {
+    if (this.stopped || this.pending.isEmpty()) return null;
+    Task longest = this.pending.get(0);
+    for (var t: this.pending) {
+      if (expected(t) > expected(longest)) longest = t;
+    }
+    this.pending.remove(longest);
+    return longest;
+  }
+
+  double expected(Task task) {
+    return estimate(task.black) + estimate(task.white);
+  }
+
+  synchronized double estimate(String player) {
+    var d = this.durations.get(player);
+    return d == null || d[1] == 0 ? this.defaultDuration : d[0] / d[1];
+  }
+
+  synchronized void record(String player, float seconds) {
+    var d = this.durations.computeIfAbsent(player, k -> new double[2]);
+    d[0] += seconds;
+    d[1] += 1;
+  }
+
+  void load(Path file) {
+    if (file == null || Files.exists(file) == false) return;
+    var props = new Properties();
+    try (Reader in = Files.newBufferedReader(file)) {
+      props.load(in);
+    } catch (IOException e) {
+      System.err.println("cannot read " + file + ": " + e);
+      return;
+    }
+    props.forEach((k, v) -> this.durations.put((String) k,
+        new double[] { Double.parseDouble((String) v), 1 }));
+  }
+
+  void save(Path file) {
+    if (file == null) return;
+    var props = new Properties();
+    this.durations.forEach((k, d) -> props.setProperty(k, Double.toString(d[0] / d[1])));
+    try (Writer out = Files.newBufferedWriter(file)) {
+      props.store(out, "average seconds per game");
+    } catch (IOException e) {
+      System.err.println("cannot write " + file + ": " + e);
+    }
+  }
+}
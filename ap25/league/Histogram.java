@@ -0,0 +1,67 @@
+package ap25.league;
+
+/**
+ * Latency histogram in microseconds with log-spaced buckets: eight
+ * buckets per power of two, so a percentile is off by at most 12.5%
+ * whatever the scale. The maximum is kept exactly. Not thread-safe;
+ * games fill their own and Match merges them under its lock.
+ */
+class Histogram {
+  static final int SUB_BITS = 3;
+  static final int SUB = 1 << SUB_BITS;
+  static final int SIZE = (64 - SUB_BITS) * SUB;
+
+  final long[] counts = new long[SIZE];
+  long count;
+  long max;
+
+  void record(long micros) {
+    var v = Math.max(micros, 0);
+    this.counts[index(v)]++;
+    this.count++;
+    this.max = Math.max(this.max, v);
+  }
+
+  void recordSeconds(float seconds) {
+    record(Math.round(seconds * 1e6));
+  }
+
+  void add(Histogram other) {
+    for (int i = 0; i < SIZE; i++) this.counts[i] += other.counts[i];
+    this.count += other.count;
+    this.max = Math.max(this.max, other.max);
+  }
+
+  static int index(long v) {
+    if (v < SUB) return (int) v;
+    var e = 63 - Long.numberOfLeadingZeros(v);
+    return (e - SUB_BITS + 1) * SUB + (int) ((v >>> (e - SUB_BITS)) & (SUB - 1));
+  }
+
+  // Largest value that falls into bucket i.
+  static long upper(int i) {
+    if (i < SUB) return i;
+    var shift = i / SUB - 1;
+    return ((long) (SUB + i % SUB + 1) << shift) - 1;
+  }
+
+  /** Upper bound of the bucket holding quantile q, never above the maximum. */
+  long percentile(double q) {
+    if (this.count == 0) return 0;
+    var rank = Math.max(1, (long) Math.ceil(q * this.count));
+    var seen = 0L;
+    for (int i = 0; i < SIZE; i++) {
+      seen += this.counts[i];
+      if (seen >= rank) return Math.min(upper(i), this.max);
+    }
+    return this.max;
+  }
+
+  double seconds(double q) {
+    return percentile(q) / 1e6;
+  }
+
+  double maxSeconds() {
+    return this.max / 1e6;
+  }
+}
@@ -2,86 +2,125 @@ package ap25.league;
 
 import ap25.Color;
 import static ap25.Color.BLACK;
-import static ap25.Color.BLOCK;
 import static ap25.Color.WHITE;
 import ap25.Player;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Random;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 public class League {
-  final int PARALLELISM = 4;
+  int parallelism = Runtime.getRuntime().availableProcessors();
+  GameScheduler.Mode mode = GameScheduler.Mode.FORK_JOIN;
+  boolean cpuClock;
+  List<ResultSink> sinks = new ArrayList<>(List.of(ResultSink.console()));
+  ResultSink sink;
+  Path timesFile;
+  long standingsInterval = 60;
+  Standings standings;
+  double[] sprtParams;
+  Sprt sprt;
+
+  static final long DEFAULT_SEED = 25;
 
   int n;
+  int boardNum;
   Player[] players;
-  Function<Color, Player[]> builder;
+  List<Function<Color, Player>> factories;
   List<Match> matches;
   Match[][] matrix;
   List<OfficialBoard> boards;
   long timeLimit;
 
-  ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
-
   public League(int boardNum, Function<Color, Player[]> builder, long timeLimit) {
-    this.builder = builder;
-    this.players = this.builder.apply(Color.NONE);
-    this.n = this.players.length;
-    this.timeLimit = timeLimit;
-    this.boards = new ArrayList<>();
-    this.boards.add(new OfficialBoard());
-    for (int i = 0; i < boardNum - 1; i++) {
-      this.boards.add(makeBoard());
-    }
-    this.boards.forEach(b -> {
-      System.out.println(b);
-      System.out.println();
-    });
+    this(boardNum, factories(builder), timeLimit);
   }
 
-  OfficialBoard makeBoard() {
-    var candidates = List.of(0, 1, 2, 3, 4, 5, 6, 12, 18, 24, 30);
-    List<Integer> xs = new ArrayList<>(candidates);
-    Collections.shuffle(xs);
-    Random rand = new Random();
-    var b = new OfficialBoard();
+  /** One factory per player, so a game builds only the two players it needs. */
+  public League(int boardNum, List<Function<Color, Player>> factories, long timeLimit) {
+    this.factories = List.copyOf(factories);
+    this.n = this.factories.size();
+    this.players = new Player[this.n];
+    for (int i = 0; i < this.n; i++) {
+      this.players[i] = this.factories.get(i).apply(Color.NONE);
+    }
+    this.timeLimit = timeLimit;
+    this.boardNum = boardNum;
+    setSeed(DEFAULT_SEED);
+  }
 
-    for (var x: xs.subList(0, rand.nextInt(3) + 1)) {
-      b.set(x, BLOCK);
+  // Adapts an array builder; every player built by it is still constructed per call.
+  static List<Function<Color, Player>> factories(Function<Color, Player[]> builder) {
+    var n = builder.apply(Color.NONE).length;
+    var list = new ArrayList<Function<Color, Player>>();
+    for (int i = 0; i < n; i++) {
+      final int k = i;
+      list.add(color -> builder.apply(color)[k]);
     }
+    return list;
+  }
 
-    return b;
+  /** Regenerates the board suite; the same seed gives the same boards. */
+  public void setSeed(long seed) {
+    this.boards = BoardSuite.generate(this.boardNum, seed);
+    if (this.boards.size() < this.boardNum) {
+      System.err.printf("only %d distinct boards available%n", this.boards.size());
+    }
   }
 
   public void run() {
+    // Virtual threads report no CPU time or allocation, so the CPU clock would silently be wall time.
+    if (this.cpuClock && this.mode == GameScheduler.Mode.VIRTUAL) {
+      throw new IllegalStateException("the CPU clock needs platform threads; drop --virtual or --cpu-time");
+    }
+    this.sink = new AsyncSink(ResultSink.of(this.sinks));
+    this.boards.forEach(b -> this.sink.info(b + System.lineSeparator()));
+
     try {
       setup();
     } catch (Exception e) {
-      System.err.println(e);
+      this.sink.error(e.toString());
     }
 
-    executeAsync();
+    try {
+      executeAsync();
+    } catch (RuntimeException | Error e) {
+      this.sink.error(e.toString());
+      throw e;
+    } finally {
+      this.sink.close(); // drains the queued game output even after a failure
+    }
     printResult();
   }
 
   void setup() throws Exception {
     this.matrix = new Match[this.n][this.n];
     this.matches = new ArrayList<>();
+    this.standings = new Standings(this.players, (long) this.n * (this.n - 1) * this.boards.size());
+    if (this.sprtParams != null) {
+      var p = this.sprtParams;
+      this.sprt = new Sprt(this.standings.rows[(int) p[0]], this.standings.rows[(int) p[1]],
+          p[2], p[3], p[4], p[5]);
+    }
 
     for (int i = 0; i < this.n; i++) {
       for (int j = 0; j < this.n; j++) {
         if (i == j) continue;
-        var black = this.builder.apply(BLACK)[i];
-        var white = this.builder.apply(WHITE)[j];
-        this.matrix[i][j] = new Match(this.boards, black, white, this.timeLimit);
+        final int bi = i, wi = j;
+        this.matrix[i][j] = new Match(this.boards,
+            () -> this.factories.get(bi).apply(BLACK),
+            () -> this.factories.get(wi).apply(WHITE), this.timeLimit);
+        this.matrix[i][j].cpuClock = this.cpuClock;
+        this.matrix[i][j].sink = this.sink;
+        this.matrix[i][j].standings = this.standings;
+        this.matrix[i][j].blackRow = this.standings.rows[i];
+        this.matrix[i][j].whiteRow = this.standings.rows[j];
+        this.matrix[i][j].sprt = this.sprt;
         this.matches.add(this.matrix[i][j]);
       }
     }
-
-    Collections.shuffle(this.matches);
   }
 
   void execute() {
@@ -90,14 +129,95 @@ public class League {
     }
   }
 
+  public void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  public void setVirtualThreads(boolean virtual) {
+    this.mode = virtual ? GameScheduler.Mode.VIRTUAL : GameScheduler.Mode.FORK_JOIN;
+  }
+
+  public void setCpuClock(boolean cpuClock) {
+    this.cpuClock = cpuClock;
+  }
+
+  public void addCsvOutput(Path path) {
+    this.sinks.add(FileSink.csv(path));
+  }
+
+  public void addJsonLinesOutput(Path path) {
+    this.sinks.add(FileSink.jsonLines(path));
+  }
+
+  public void addGameLog(Path path) {
+    this.sinks.add(new GameLogSink(path));
+  }
+
+  /** Seconds between standings reports; 0 disables them. */
+  public void setStandingsInterval(long seconds) {
+    this.standingsInterval = seconds;
+  }
+
+  /**
+   * Tests whether player a is elo1 rather than elo0 stronger than player b
+   * and stops scheduling games once either hypothesis is accepted.
+   */
+  public void setSprt(int a, int b, double elo0, double elo1, double alpha, double beta) {
+    this.sprtParams = new double[] { a, b, elo0, elo1, alpha, beta };
+  }
+
+  public Sprt getSprt() {
+    return this.sprt;
+  }
+
+  public Standings getStandings() {
+    return this.standings;
+  }
+
+  public void setTimesFile(Path timesFile) {
+    this.timesFile = timesFile;
+  }
+
   void executeAsync() {
+    var scheduler = new GameScheduler(this.mode, this.parallelism, this.timeLimit / 2.0);
+    scheduler.load(this.timesFile);
+    if (this.sprt != null) {
+      this.sprt.onDecision = scheduler::stop;
+    }
+    for (int i = 0; i < this.n; i++) {
+      for (int j = 0; j < this.n; j++) {
+        var m = this.matrix[i][j];
+        if (m == null) continue;
+        for (int k = 0; k < this.boards.size(); k++) {
+          scheduler.add(m, k, this.players[i].toString(), this.players[j].toString());
+        }
+      }
+    }
+
+    var reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+      var t = new Thread(r, "standings");
+      t.setDaemon(true);
+      return t;
+    });
+    if (this.standingsInterval > 0) {
+      reporter.scheduleAtFixedRate(() -> this.sink.info(this.standings.toString()),
+          this.standingsInterval, this.standingsInterval, TimeUnit.SECONDS);
+    }
+
+    long tm = System.currentTimeMillis();
+    this.standings.start();
     try {
-      this.pool.submit(() -> matches.parallelStream()
-          .forEach(match -> match.play())).get();
-    } catch (InterruptedException | ExecutionException e) {
-      e.printStackTrace();
-    } catch (Exception e) {
-      e.printStackTrace();
+      scheduler.run();
+    } finally {
+      reporter.shutdownNow();
+    }
+    tm = System.currentTimeMillis() - tm;
+    var games = this.standings.getDone();
+    this.sink.info(String.format("%s: %d games, parallelism %d, %.1fs, %.2f games/s",
+        this.mode, games, this.parallelism, tm / 1000.0, games * 1000.0 / Math.max(tm, 1)));
+    scheduler.save(this.timesFile);
+    if (this.sprt != null) {
+      this.sink.info(this.sprt.toString());
     }
   }
 
@@ -3,63 +3,69 @@ package ap25.league;
 import static ap25.Color.BLACK;
 import static ap25.Color.WHITE;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import ap25.Color;
+import java.util.function.Supplier;
 import ap25.Player;
 
-class Stat {
-  int win;
-  int lose;
-  int draw;
-  int score;
-  int time;
-
-  void update(float score, float time) {
-    if (score > 0) {
-      this.win += 1;
-      this.score += score;
-    } else if (score < 0) {
-      this.lose += 1;
-    } else {
-      this.draw += 1;
-      this.score += 1;
-    }
-    this.time += time;
-  }
-}
-
 class Match {
-  Player black;
-  Player white;
-  Map<Color, Player> players;
+  Supplier<Player> blackBuilder;
+  Supplier<Player> whiteBuilder;
   List<OfficialBoard> boards = new ArrayList<>();
-  List<Game> games = new ArrayList<>();
+  List<Game> games = Collections.synchronizedList(new ArrayList<>());
   long timeLimit;
+  boolean cpuClock;
+  ResultSink sink = ResultSink.console();
+  Standings standings;
+  Standings.Row blackRow;
+  Standings.Row whiteRow;
+  Sprt sprt;
   Stat blackStat = new Stat();
   Stat whiteStat = new Stat();
 
-  Match(List<OfficialBoard> boards, Player black, Player white, long timeLimit) {
-    // this.boards = new ArrayList<>(boards);
+  Match(List<OfficialBoard> boards, Supplier<Player> black, Supplier<Player> white, long timeLimit) {
     this.boards = boards;
-    this.black = black;
-    this.white = white;
-    this.players = Map.of(BLACK, black, WHITE, white);
+    this.blackBuilder = black;
+    this.whiteBuilder = white;
     this.timeLimit = timeLimit;
-    this.games = this.boards.stream()
-        .map(b -> new Game(b, black, white, this.timeLimit)).toList();
+  }
+
+  Game newGame(int k) {
+    var black = this.blackBuilder.get();
+    var white = this.whiteBuilder.get();
+    var game = new Game(this.boards.get(k), black, white, this.timeLimit);
+    game.setCpuClock(this.cpuClock);
+    game.setSink(this.sink);
+    return game;
   }
 
   void play() {
-    this.games.forEach(g -> {
-      g.play();
-      update(g);
-    });
+    for (int k = 0; k < this.boards.size(); k++) {
+      play(k);
+    }
+  }
+
+  void play(int k) {
+    var game = newGame(k);
+    game.play();
+    update(game);
   }
 
-  void update(Game game) {
+  synchronized void update(Game game) {
     var score = game.board.score();
-    this.blackStat.update(score, game.times.get(BLACK));
-    this.whiteStat.update(-score, game.times.get(WHITE));
+    this.blackStat.update(score, game.times.get(BLACK), game.wallTimes.get(BLACK),
+        game.cpuTimes.get(BLACK), game.timeLeft(BLACK), game.latencies.get(BLACK), game.black.getStats());
+    this.whiteStat.update(-score, game.times.get(WHITE), game.wallTimes.get(WHITE),
+        game.cpuTimes.get(WHITE), game.timeLeft(WHITE), game.latencies.get(WHITE), game.white.getStats());
+    this.blackStat.updateMemory(game.allocated.get(BLACK), game.latencies.get(BLACK).count, game.gcMillis);
+    this.whiteStat.updateMemory(game.allocated.get(WHITE), game.latencies.get(WHITE).count, game.gcMillis);
+    this.games.add(game);
+    if (this.standings != null) {
+      this.standings.update(this.blackRow, this.whiteRow, score,
+          game.times.get(BLACK), game.times.get(WHITE));
+    }
+    if (this.sprt != null) {
+      this.sprt.update(this.blackRow, this.whiteRow, score);
+    }
   }
 }
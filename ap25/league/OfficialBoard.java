@@ -7,32 +7,37 @@ import static ap25.Color.WHITE;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 import ap25.Board;
 import ap25.Color;
 import ap25.Move;
 
 public class OfficialBoard implements Board, Cloneable {
+  // RAYS[k][dir] lists the squares from k outward, as Move.line(k, dir)
+  static final int[][][] RAYS = new int[LENGTH][8][];
+
+  static {
+    for (int k = 0; k < LENGTH; k++) {
+      for (int dir = 0; dir < 8; dir++) {
+        RAYS[k][dir] = Move.line(k, dir).stream().mapToInt(Integer::intValue).toArray();
+      }
+    }
+  }
+
   Color board[];
   Move move = new Move(Move.PASS, NONE);
-  Set<Integer> nones = new TreeSet<Integer>();
+  // bit k is set while square k has never been played or blocked
+  long nones = (1L << LENGTH) - 1;
 
   public OfficialBoard() {
-    this.board = Stream.generate(() -> NONE).limit(LENGTH).toArray(Color[]::new);
-    this.nones.addAll(IntStream.range(0, LENGTH).boxed().toList());
+    this.board = new Color[LENGTH];
+    Arrays.fill(this.board, NONE);
     init();
   }
 
-  OfficialBoard(Color board[], Move move, Set<Integer> nones) {
+  OfficialBoard(Color board[], Move move, long nones) {
     this.board = Arrays.copyOf(board, board.length);
     this.move = move;
-    this.nones = new TreeSet<Integer>(nones);
+    this.nones = nones;
   }
 
   public OfficialBoard clone() {
@@ -55,11 +60,11 @@ public class OfficialBoard implements Board, Cloneable {
 
   void set(int k, Color color) {
     this.board[k] = color;
-    this.nones.remove(k);
+    this.nones &= ~(1L << k);
   }
 
   void setAll(Color color) {
-    IntStream.range(0, LENGTH).forEach(k -> this.board[k] = color);
+    Arrays.fill(this.board, color);
   }
 
   public boolean equals(Object otherObj) {
@@ -75,13 +80,15 @@ public class OfficialBoard implements Board, Cloneable {
   }
 
   public int count(Color color) {
-    return countAll().getOrDefault(color, 0L).intValue();
+    var n = 0;
+    for (var c: this.board) {
+      if (c == color) n++;
+    }
+    return n;
   }
 
   public boolean isEnd() {
-    var lbs = findNoPassLegalIndexes(BLACK);
-    var lws = findNoPassLegalIndexes(WHITE);
-    return lbs.size() == 0 && lws.size() == 0;
+    return hasLegal(BLACK) == false && hasLegal(WHITE) == false;
   }
 
   public Color winner() {
@@ -91,16 +98,14 @@ public class OfficialBoard implements Board, Cloneable {
   }
 
   public void foul(Color color) {
-    var winner = color.flipped();
-    IntStream.range(0, LENGTH).forEach(k -> this.board[k] = winner);
+    setAll(color.flipped());
   }
 
   public int score() {
-    var cs = countAll();
-    var bs = cs.getOrDefault(BLACK, 0L);
-    var ws = cs.getOrDefault(WHITE, 0L);
+    var bs = count(BLACK);
+    var ws = count(WHITE);
     var ns = LENGTH - bs - ws;
-    int score = (int) (bs - ws);
+    int score = bs - ws;
 
     if (bs == 0 || ws == 0)
       score += Integer.signum(score) * ns;
@@ -108,11 +113,6 @@ public class OfficialBoard implements Board, Cloneable {
     return score;
   }
 
-  Map<Color, Long> countAll() {
-    return Arrays.stream(this.board).collect(
-        Collectors.groupingBy(Function.identity(), Collectors.counting()));
-  }
-
   public List<Move> findLegalMoves(Color color) {
     return findLegalIndexes(color).stream()
         .map(k -> new Move(k, color)).toList();
@@ -125,32 +125,47 @@ public class OfficialBoard implements Board, Cloneable {
   }
 
   List<Integer> findNoPassLegalIndexes(Color color) {
-    return this.nones.stream()
-        .filter(k -> isLegal(k, color))
-        .collect(Collectors.toCollection(ArrayList::new));
+    var moves = new ArrayList<Integer>();
+    for (var m = this.nones; m != 0; m &= m - 1) {
+      var k = Long.numberOfTrailingZeros(m);
+      if (isLegal(k, color)) moves.add(k);
+    }
+    return moves;
   }
 
-  boolean isLegal(int k, Color color) {
-    return lines(k).stream()
-        .anyMatch(line -> outflanked(line, color).size() > 0);
+  boolean hasLegal(Color color) {
+    for (var m = this.nones; m != 0; m &= m - 1) {
+      if (isLegal(Long.numberOfTrailingZeros(m), color)) return true;
+    }
+    return false;
+  }
+
+  // Checks one move without listing the others; same answer as findLegalMoves(color).contains(move).
+  public boolean isLegal(Move move) {
+    var k = move.getIndex();
+    var color = move.getColor();
+    if (move.isPass()) return hasLegal(color) == false;
+    if (k < 0 || k >= LENGTH || (this.nones & (1L << k)) == 0) return false;
+    return isLegal(k, color);
   }
 
-  List<List<Integer>> lines(int k) {
-    return IntStream.range(0, 8).boxed()
-        .map(dir -> Move.line(k, dir)).toList();
+  boolean isLegal(int k, Color color) {
+    for (var ray: RAYS[k]) {
+      if (outflanked(ray, color) > 0) return true;
+    }
+    return false;
   }
 
-  List<Integer> outflanked(List<Integer> line, Color color) {
-    if (line.size() > 1) {
-      var flippables = new ArrayList<Integer>();
-      for (var k: line) {
-        var c = get(k);
+  // Number of discs flanked along the ray, 0 if the ray is not closed by color.
+  int outflanked(int[] ray, Color color) {
+    if (ray.length > 1) {
+      for (int i = 0; i < ray.length; i++) {
+        var c = this.board[ray[i]];
         if (c == NONE || c == BLOCK) break;
-        if (c == color) return flippables;
-        flippables.add(k);
+        if (c == color) return i;
       }
     }
-    return new ArrayList<Integer>();
+    return 0;
   }
 
   public OfficialBoard placed(Move move) {
@@ -162,9 +177,10 @@ public class OfficialBoard implements Board, Cloneable {
 
     var k = move.getIndex();
     var color = move.getColor();
-    b.lines(k).forEach(line -> {
-      outflanked(line, color).forEach(k1 -> b.board[k1] = color);
-    });
+    for (var ray: RAYS[k]) {
+      var n = outflanked(ray, color);
+      for (int i = 0; i < n; i++) b.board[ray[i]] = color;
+    }
     b.set(k, color);
 
     return b;
@@ -172,7 +188,7 @@ public class OfficialBoard implements Board, Cloneable {
 
   public OfficialBoard flipped() {
     var b = clone();
-    IntStream.range(0, LENGTH).forEach(k -> b.board[k] = b.board[k].flipped());
+    for (int k = 0; k < LENGTH; k++) b.board[k] = b.board[k].flipped();
     b.move = this.move.flipped();
     return b;
   }
@@ -0,0 +1,136 @@
+package ap25.league;
+
+import static ap25.Board.LENGTH;
+import static ap25.Color.BLACK;
+import static ap25.Color.BLOCK;
+import static ap25.Color.NONE;
+import static ap25.Color.WHITE;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import ap25.Board;
+import ap25.BoardView;
+import ap25.Color;
+import ap25.Move;
+import ap25.Player;
+
+/**
+ * Hosts players in their own JVM for RemotePlayer. One request line on
+ * stdin gets one reply line on stdout:
+ *
+ * <pre>
+ *   new COLOR MILLIS     -> ok NAME      new player with this time limit
+ *   board POSITION       -> ok           setBoard
+ *   think POSITION       -> move INDEX   think, -1 for pass
+ *   stats                -> stats K=V... player stats plus gcCount, gcMillis
+ *   end                  -> ok           drop the player
+ * </pre>
+ *
+ * POSITION is the 36 cells ('.' empty, 'o' black, 'x' white, '#' block),
+ * the index of the last move and its color. Failures reply "error TEXT".
+ * Anything the player prints goes to stderr.
+ */
+public class PlayerServer {
+  final Class<?> playerClass;
+  Player player;
+
+  PlayerServer(Class<?> playerClass) {
+    this.playerClass = playerClass;
+  }
+
+  public static void main(String[] args) throws Exception {
+    var out = new PrintStream(System.out, true, "UTF-8");
+    System.setOut(System.err);
+
+    var server = new PlayerServer(Class.forName(args[0]));
+    var in = new BufferedReader(new InputStreamReader(System.in, "UTF-8"));
+    String line;
+    while ((line = in.readLine()) != null) {
+      String reply;
+      try {
+        reply = server.handle(line.split(" ", 2));
+      } catch (Throwable e) {
+        reply = "error " + String.valueOf(e).replace('\n', ' ');
+      }
+      out.println(reply);
+    }
+  }
+
+  String handle(String[] req) throws Exception {
+    var arg = req.length > 1 ? req[1] : "";
+    switch (req[0]) {
+    case "new":
+      var a = arg.split(" ");
+      var color = parseColor(a[0].charAt(0));
+      this.player = (Player) this.playerClass.getConstructor(Color.class).newInstance(color);
+      this.player.setTimeLimit(Long.parseLong(a[1]));
+      return "ok " + this.player;
+    case "board":
+      this.player.setBoard(BoardView.of(decode(arg)));
+      return "ok";
+    case "think":
+      var move = this.player.think(BoardView.of(decode(arg)));
+      return "move " + move.getIndex();
+    case "stats":
+      var stats = new TreeMap<String, Long>();
+      if (this.player != null) stats.putAll(this.player.getStats());
+      stats.putAll(gcStats());
+      return "stats " + stats.entrySet().stream()
+          .map(e -> e.getKey() + "=" + e.getValue()).collect(Collectors.joining(" "));
+    case "end":
+      if (this.player != null) this.player.endGame();
+      this.player = null;
+      return "ok";
+    default:
+      throw new IllegalArgumentException("unknown request: " + req[0]);
+    }
+  }
+
+  static Map<String, Long> gcStats() {
+    long count = 0, millis = 0;
+    for (var gc: ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(gc.getCollectionCount(), 0);
+      millis += Math.max(gc.getCollectionTime(), 0);
+    }
+    return Map.of("gcCount", count, "gcMillis", millis);
+  }
+
+  static String encode(Board board) {
+    var buf = new StringBuilder(LENGTH + 8);
+    for (int k = 0; k < LENGTH; k++) {
+      buf.append(symbol(board.get(k)));
+    }
+    var move = board.getMove();
+    return buf.append(' ').append(move.getIndex()).append(' ')
+        .append(symbol(move.getColor())).toString();
+  }
+
+  static OfficialBoard decode(String text) {
+    var parts = text.split(" ");
+    var cells = new Color[LENGTH];
+    var nones = 0L;
+    for (int k = 0; k < LENGTH; k++) {
+      cells[k] = parseColor(parts[0].charAt(k));
+      if (cells[k] == NONE) nones |= 1L << k;
+    }
+    var move = new Move(Integer.parseInt(parts[1]), parseColor(parts[2].charAt(0)));
+    return new OfficialBoard(cells, move, nones);
+  }
+
+  static char symbol(Color color) {
+    return color == NONE ? '.' : color.toString().charAt(0);
+  }
+
+  static Color parseColor(char c) {
+    switch (c) {
+    case 'o': return BLACK;
+    case 'x': return WHITE;
+    case '#': return BLOCK;
+    default: return NONE;
+    }
+  }
+}
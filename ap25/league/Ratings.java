@@ -0,0 +1,92 @@
+package ap25.league;
+
+import java.util.Arrays;
+
+/**
+ * Bradley-Terry ratings fitted to the match table by the MM algorithm,
+ * reported on the Elo scale with the mean rating at 0. A draw counts as
+ * half a win, and every pair that met gets one virtual draw so that a
+ * player without wins still has a finite rating. The 95% intervals come
+ * from the diagonal of the Fisher information.
+ */
+class Ratings {
+  static final double ELO = 400 / Math.log(10);
+  static final int MAX_ITERATIONS = 10000;
+  static final double EPSILON = 1e-10;
+
+  final int n;
+  final double[][] wins;
+  final double[][] games;
+  final double[] gamma;
+  final double[] elo;
+  final double[] error;
+
+  Ratings(Match[][] matrix) {
+    this.n = matrix.length;
+    this.wins = new double[n][n];
+    this.games = new double[n][n];
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < n; j++) {
+        var m = matrix[i][j];
+        if (m == null) continue;
+        add(i, j, m.blackStat);
+        add(j, i, m.whiteStat);
+      }
+    }
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < n; j++) {
+        if (this.games[i][j] == 0) continue;
+        this.wins[i][j] += 0.5;
+        this.games[i][j] += 1;
+      }
+    }
+
+    this.gamma = fit();
+    this.elo = new double[n];
+    this.error = new double[n];
+    for (int i = 0; i < n; i++) {
+      this.elo[i] = ELO * Math.log(this.gamma[i]);
+      var info = 0.0;
+      for (int j = 0; j < n; j++) {
+        var p = this.gamma[i] / (this.gamma[i] + this.gamma[j]);
+        info += this.games[i][j] * p * (1 - p);
+      }
+      this.error[i] = info == 0 ? Double.NaN : 1.96 * ELO / Math.sqrt(info);
+    }
+  }
+
+  // Counts the games of one side of a match; the other side is added as (j, i).
+  void add(int i, int j, Stat s) {
+    var n = s.win + s.lose + s.draw;
+    this.wins[i][j] += s.win + 0.5 * s.draw;
+    this.games[i][j] += n;
+  }
+
+  double[] fit() {
+    var g = new double[n];
+    Arrays.fill(g, 1);
+    for (int it = 0; it < MAX_ITERATIONS; it++) {
+      var next = new double[n];
+      var change = 0.0;
+      var logSum = 0.0;
+      for (int i = 0; i < n; i++) {
+        var w = 0.0;
+        var d = 0.0;
+        for (int j = 0; j < n; j++) {
+          w += this.wins[i][j];
+          d += this.games[i][j] / (g[i] + g[j]);
+        }
+        next[i] = d == 0 ? 1 : w / d;
+        logSum += Math.log(next[i]);
+      }
+      var scale = Math.exp(-logSum / n);
+      for (int i = 0; i < n; i++) {
+        next[i] *= scale;
+        change = Math.max(change, Math.abs(Math.log(next[i] / g[i])));
+      }
+      g = next;
+      if (change < EPSILON) break;
+    }
+    return g;
+  }
+}
@@ -1,5 +1,7 @@
 package ap25.league;
 
+import java.util.Map;
+import java.util.TreeMap;
 import ap25.Player;
 
 class Record implements Comparable<Record> {
@@ -12,11 +14,32 @@ class Record implements Comparable<Record> {
   int draw;
   int score;
   float time;
+  float wall;
+  float cpu;
+  float left;
+  Histogram latency = new Histogram();
+  long allocated;
+  long allocatedThinks;
+  long gcMillis;
+  Map<String, Long> stats = new TreeMap<>();
 
   float ratio() {
     return (float) this.win / (this.win + this.lose + this.draw);
   }
 
+  void addStats(Map<String, Long> stats) {
+    stats.forEach((k, v) -> this.stats.merge(k, v, Long::sum));
+  }
+
+  long stat(String key) {
+    return this.stats.getOrDefault(key, 0L);
+  }
+
+  double rate(String key, String total) {
+    var t = stat(total);
+    return t == 0 ? 0 : (double) stat(key) / t;
+  }
+
   public int compareTo(Record o) {
     if (this.win != o.win) return o.win - this.win;
     if (this.score != o.score) return o.score - this.score;
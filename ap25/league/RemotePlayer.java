@@ -0,0 +1,138 @@
+package ap25.league;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import ap25.Board;
+import ap25.Color;
+import ap25.Move;
+import ap25.Player;
+
+/**
+ * Runs a player class in a separate JVM through PlayerServer, so it has
+ * its own heap, GC and JIT profile. A process is taken from a pool when
+ * the game starts and returned when the game ends; the pool
+ * grows to as many processes as there are concurrent games. getStats adds
+ * the GC count and time the process spent during the game.
+ */
+public class RemotePlayer extends Player implements AutoCloseable {
+  static final Map<List<String>, ConcurrentLinkedDeque<Connection>> POOL = new ConcurrentHashMap<>();
+
+  static class Connection {
+    final Process process;
+    final BufferedReader in;
+    final PrintWriter out;
+
+    Connection(List<String> command) throws IOException {
+      this.process = new ProcessBuilder(command)
+          .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+      this.in = new BufferedReader(new InputStreamReader(
+          this.process.getInputStream(), StandardCharsets.UTF_8));
+      this.out = new PrintWriter(new OutputStreamWriter(
+          this.process.getOutputStream(), StandardCharsets.UTF_8), true);
+    }
+
+    String request(String line) throws IOException {
+      this.out.println(line);
+      var reply = this.in.readLine();
+      if (reply == null) throw new IOException("player process exited");
+      if (reply.startsWith("error ")) throw new IllegalStateException(reply.substring(6));
+      return reply;
+    }
+  }
+
+  final List<String> command;
+  Connection conn;
+  Map<String, Long> gcStart = Map.of();
+  Map<String, Long> stats = Map.of();
+
+  public RemotePlayer(String name, String className, Color color, String... jvmArgs) {
+    super(name, color);
+    this.command = new ArrayList<>();
+    this.command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    this.command.add("-cp");
+    this.command.add(System.getProperty("java.class.path"));
+    this.command.addAll(List.of(jvmArgs));
+    this.command.add(PlayerServer.class.getName());
+    this.command.add(className);
+  }
+
+  public void setBoard(Board board) {
+    super.setBoard(board);
+    try {
+      connect();
+      this.conn.request("board " + PlayerServer.encode(board));
+    } catch (IOException e) {
+      throw fail(e);
+    }
+  }
+
+  public Move think(Board board) {
+    try {
+      connect();
+      var reply = this.conn.request("think " + PlayerServer.encode(board));
+      return Move.of(Integer.parseInt(reply.substring("move ".length())), getColor());
+    } catch (IOException e) {
+      throw fail(e);
+    }
+  }
+
+  void connect() throws IOException {
+    if (this.conn != null) return;
+    var idle = POOL.computeIfAbsent(this.command, k -> new ConcurrentLinkedDeque<>());
+    var c = idle.poll();
+    this.conn = c != null ? c : new Connection(this.command);
+    this.conn.request("new " + PlayerServer.symbol(getColor()) + " " + getTimeLimit());
+    this.gcStart = requestStats();
+  }
+
+  Map<String, Long> requestStats() throws IOException {
+    var reply = this.conn.request("stats");
+    var map = new TreeMap<String, Long>();
+    for (var kv: reply.substring("stats".length()).trim().split(" ")) {
+      var i = kv.indexOf('=');
+      if (i > 0) map.put(kv.substring(0, i), Long.parseLong(kv.substring(i + 1)));
+    }
+    return map;
+  }
+
+  public void endGame() {
+    close();
+  }
+
+  public void close() {
+    if (this.conn == null) return;
+    try {
+      var s = requestStats();
+      for (var key: List.of("gcCount", "gcMillis")) {
+        s.put(key, s.getOrDefault(key, 0L) - this.gcStart.getOrDefault(key, 0L));
+      }
+      this.stats = s;
+      this.conn.request("end");
+      POOL.get(this.command).offer(this.conn);
+    } catch (IOException | RuntimeException e) {
+      this.conn.process.destroy();
+    }
+    this.conn = null;
+  }
+
+  RuntimeException fail(IOException e) {
+    if (this.conn != null) this.conn.process.destroy();
+    this.conn = null;
+    return new IllegalStateException(e);
+  }
+
+  public Map<String, Long> getStats() {
+    return this.stats;
+  }
+}
@@ -33,6 +33,8 @@ public class Result {
         var r1 = this.records[j];
         update(m.blackStat, r0);
         update(m.whiteStat, r1);
+        r0.addStats(m.blackStat.search);
+        r1.addStats(m.whiteStat.search);
       }
     }
 
@@ -46,25 +48,43 @@ public class Result {
     r.draw += s.draw;
     r.score += s.score;
     r.time += s.time;
+    r.wall += s.wall;
+    r.cpu += s.cpu;
+    r.left += s.left;
+    r.latency.add(s.latency);
+    r.allocated += s.allocated;
+    r.allocatedThinks += s.allocatedThinks;
+    r.gcMillis += s.gcMillis;
   }
 
   public String toString() {
     var buf = new StringBuilder();
     makeOverall(buf);
     makeDetail(buf);
+    makeRating(buf);
+    makeSearch(buf);
+    makeMemory(buf);
+    makeGc(buf);
     return buf.toString();
   }
 
   void makeOverall(StringBuilder buf) {
     buf.append("***** RANK *****" + NL);
-    buf.append("   ||name| win|lose|draw|| ratio| score|  time ||" + NL);
-    buf.append("---++----+----+----+----++------+------+-------++" + NL);
+    buf.append("   ||name| win|lose|draw|| ratio| score|  time ||  wall |  cpu  ||"
+        + "  p50  |  p90  |  p99  |  max  || left  ||" + NL);
+    buf.append("---++----+----+----+----++------+------+-------++-------+-------++"
+        + "-------+-------+-------+-------++-------++" + NL);
 
     var i = 1;
     for (var r: this.records) {
+      if (r.n == 0) continue; // an SPRT stop can leave a player without games
       var t = r.time / r.n;
-      var s = String.format("%3d||%4s|%4d|%4d|%4d||%5.1f%%|%6d|%6.3fs||",
-          i, r.player, r.win, r.lose, r.draw, 100.0 * r.ratio(), r.score, t);
+      var h = r.latency;
+      var s = String.format("%3d||%4s|%4d|%4d|%4d||%5.1f%%|%6d|%6.3fs||%6.3fs|%6.3fs||"
+          + "%6.3fs|%6.3fs|%6.3fs|%6.3fs||%6.2fs||",
+          i, r.player, r.win, r.lose, r.draw, 100.0 * r.ratio(), r.score, t,
+          r.wall / r.n, r.cpu / r.n,
+          h.seconds(0.5), h.seconds(0.9), h.seconds(0.99), h.maxSeconds(), r.left / r.n);
       buf.append(s + NL);
       i += 1;
     }
@@ -103,4 +123,72 @@ public class Result {
     }
     buf.append(NL);
   }
+
+  void makeRating(StringBuilder buf) {
+    var ratings = new Ratings(this.matrix);
+
+    buf.append(NL + "***** ELO *****" + NL);
+    buf.append("name|   elo|  95% |" + NL);
+    buf.append("----+------+------+" + NL);
+
+    for (var r: this.records) {
+      if (r.n == 0) continue;
+      var s = String.format("%4s|%+6.0f|%6.0f|", r.player, ratings.elo[r.i], ratings.error[r.i]);
+      buf.append(s + NL);
+    }
+  }
+
+  void makeSearch(StringBuilder buf) {
+    if (Arrays.stream(this.records).noneMatch(r -> r.stats.containsKey("nodes"))) return;
+
+    buf.append(NL + "***** SEARCH *****" + NL);
+    buf.append("name|      nodes|  kN/s|tt hit|tt cut|1st cut|  ebf|re-srch|aborted" + NL);
+    buf.append("----+-----------+------+------+------+-------+-----+-------+-------" + NL);
+
+    for (var r: this.records) {
+      if (r.stats.containsKey("nodes") == false) continue;
+      var ms = r.stat("nanos") / 1e6;
+      var knps = ms == 0 ? 0 : r.stat("nodes") / ms;
+      var samples = r.stat("branchingSamples");
+      var ebf = samples == 0 ? 0 : Math.exp(r.stat("branchingLogMillis") / 1000.0 / samples);
+      var s = String.format("%4s|%11d|%6.1f|%5.1f%%|%5.1f%%|%6.1f%%|%5.2f|%7d|%3d/%3d",
+          r.player, r.stat("nodes"), knps,
+          100 * r.rate("ttHits", "ttProbes"), 100 * r.rate("ttCutoffs", "ttProbes"),
+          100 * r.rate("firstMoveCutoffs", "betaCutoffs"), ebf, r.stat("researches"),
+          r.stat("abortedIterations"), r.stat("iterations"));
+      buf.append(s + NL);
+    }
+  }
+
+  // Allocation of the thinking thread only; GC time is JVM-wide while the player's games ran.
+  void makeMemory(StringBuilder buf) {
+    buf.append(NL + "***** MEMORY *****" + NL);
+    buf.append("name|  KB/think|   MB/game|gc ms/game" + NL);
+    buf.append("----+----------+----------+----------" + NL);
+
+    for (var r: this.records) {
+      if (r.n == 0) continue;
+      var perThink = r.allocatedThinks == 0 ? "       n/a"
+          : String.format("%10.1f", r.allocated / 1024.0 / r.allocatedThinks);
+      var perGame = r.allocatedThinks == 0 ? "       n/a"
+          : String.format("%10.2f", r.allocated / 1048576.0 / r.n);
+      var s = String.format("%4s|%s|%s|%10.1f", r.player, perThink, perGame, (double) r.gcMillis / r.n);
+      buf.append(s + NL);
+    }
+  }
+
+  void makeGc(StringBuilder buf) {
+    if (Arrays.stream(this.records).noneMatch(r -> r.stats.containsKey("gcCount"))) return;
+
+    buf.append(NL + "***** GC *****" + NL);
+    buf.append("name| count|   ms| ms/game" + NL);
+    buf.append("----+------+-----+--------" + NL);
+
+    for (var r: this.records) {
+      if (r.n == 0 || r.stats.containsKey("gcCount") == false) continue;
+      var s = String.format("%4s|%6d|%5d|%8.1f",
+          r.player, r.stat("gcCount"), r.stat("gcMillis"), (double) r.stat("gcMillis") / r.n);
+      buf.append(s + NL);
+    }
+  }
 }
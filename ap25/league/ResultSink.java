@@ -0,0 +1,39 @@
+package ap25.league;
+
+import java.util.List;
+
+public interface ResultSink extends AutoCloseable {
+  void game(GameResult result);
+  void info(String text);
+  void error(String text);
+  default void flush() {}
+  default void close() {}
+
+  static ResultSink console() {
+    return ConsoleSink.INSTANCE;
+  }
+
+  static ResultSink of(List<ResultSink> sinks) {
+    if (sinks.size() == 1) return sinks.get(0);
+    return new ResultSink() {
+      public void game(GameResult result) { sinks.forEach(s -> s.game(result)); }
+      public void info(String text) { sinks.forEach(s -> s.info(text)); }
+      public void error(String text) { sinks.forEach(s -> s.error(text)); }
+      public void flush() { sinks.forEach(s -> s.flush()); }
+      public void close() { sinks.forEach(s -> s.close()); }
+    };
+  }
+}
+
+class ConsoleSink implements ResultSink {
+  static final ConsoleSink INSTANCE = new ConsoleSink();
+
+  public void game(GameResult result) { System.out.println(result); }
+  public void info(String text) { System.out.println(text); }
+  public void error(String text) { System.err.println(text); }
+
+  public void flush() {
+    System.out.flush();
+    System.err.flush();
+  }
+}
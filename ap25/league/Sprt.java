@@ -0,0 +1,101 @@
+package ap25.league;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sequential probability ratio test of player A against player B. H0 is
+ * "A is elo0 stronger", H1 is "A is elo1 stronger"; the log-likelihood
+ * ratio uses the usual normal approximation of the trinomial game score.
+ * Once it crosses a bound the decision is fixed and onDecision runs.
+ */
+public class Sprt {
+  public enum Decision { NONE, H0, H1 }
+
+  final Standings.Row a;
+  final Standings.Row b;
+  final double elo0;
+  final double elo1;
+  final double lower;
+  final double upper;
+  final LongAdder win = new LongAdder();
+  final LongAdder lose = new LongAdder();
+  final LongAdder draw = new LongAdder();
+  volatile Decision decision = Decision.NONE;
+  volatile double llr;
+  Runnable onDecision = () -> {};
+
+  Sprt(Standings.Row a, Standings.Row b, double elo0, double elo1, double alpha, double beta) {
+    this.a = a;
+    this.b = b;
+    this.elo0 = elo0;
+    this.elo1 = elo1;
+    this.lower = Math.log(beta / (1 - alpha));
+    this.upper = Math.log((1 - beta) / alpha);
+  }
+
+  void update(Standings.Row black, Standings.Row white, int score) {
+    if (black == this.a && white == this.b) {
+      count(score);
+    } else if (black == this.b && white == this.a) {
+      count(-score);
+    } else {
+      return;
+    }
+    decide();
+  }
+
+  void count(int score) {
+    if (score > 0) {
+      this.win.increment();
+    } else if (score < 0) {
+      this.lose.increment();
+    } else {
+      this.draw.increment();
+    }
+  }
+
+  synchronized void decide() {
+    if (this.decision != Decision.NONE) return;
+    this.llr = llr(this.win.sum(), this.lose.sum(), this.draw.sum());
+    if (this.llr >= this.upper) {
+      this.decision = Decision.H1;
+    } else if (this.llr <= this.lower) {
+      this.decision = Decision.H0;
+    } else {
+      return;
+    }
+    this.onDecision.run();
+  }
+
+  double llr(long w, long l, long d) {
+    double n = w + l + d;
+    if (n == 0) return 0;
+    var mean = (w + 0.5 * d) / n;
+    var var = (w * sq(1 - mean) + d * sq(0.5 - mean) + l * sq(mean)) / n;
+    if (var == 0) return 0;
+    var s0 = expected(this.elo0);
+    var s1 = expected(this.elo1);
+    return n * (s1 - s0) * (2 * mean - s0 - s1) / (2 * var);
+  }
+
+  static double expected(double elo) {
+    return 1 / (1 + Math.pow(10, -elo / 400));
+  }
+
+  static double sq(double x) {
+    return x * x;
+  }
+
+  public Decision getDecision() {
+    return this.decision;
+  }
+
+  public String toString() {
+    return String.format("SPRT %s vs %s [%.1f, %.1f]: +%d -%d =%d, LLR %.2f (%.2f, %.2f) %s",
+        this.a.player, this.b.player, this.elo0, this.elo1,
+        this.win.sum(), this.lose.sum(), this.draw.sum(),
+        this.llr, this.lower, this.upper,
+        this.decision == Decision.NONE ? "undecided"
+            : this.decision == Decision.H1 ? "H1 accepted" : "H0 accepted");
+  }
+}
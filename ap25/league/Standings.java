@@ -0,0 +1,111 @@
+package ap25.league;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.LongAdder;
+import ap25.Player;
+
+/**
+ * Running standings updated by game threads as games finish. Every
+ * counter is a LongAdder, so threads never contend on a lock; a
+ * snapshot may mix games that are still being added. The final table
+ * still comes from Result once the league is done.
+ */
+public class Standings {
+  final static String NL = System.lineSeparator();
+
+  static class Row {
+    final Player player;
+    final LongAdder win = new LongAdder();
+    final LongAdder lose = new LongAdder();
+    final LongAdder draw = new LongAdder();
+    final LongAdder score = new LongAdder();
+    final LongAdder micros = new LongAdder();
+
+    Row(Player player) {
+      this.player = player;
+    }
+
+    void update(int score, float time) {
+      if (score > 0) {
+        this.win.increment();
+        this.score.add(score);
+      } else if (score < 0) {
+        this.lose.increment();
+      } else {
+        this.draw.increment();
+        this.score.increment();
+      }
+      this.micros.add(Math.round(time * 1e6));
+    }
+
+    long games() {
+      return this.win.sum() + this.lose.sum() + this.draw.sum();
+    }
+  }
+
+  final Row[] rows;
+  final long total;
+  final LongAdder done = new LongAdder();
+  long start;
+
+  Standings(Player[] players, long total) {
+    this.rows = new Row[players.length];
+    for (int i = 0; i < players.length; i++) {
+      this.rows[i] = new Row(players[i]);
+    }
+    this.total = total;
+    this.start = System.nanoTime();
+  }
+
+  void start() {
+    this.start = System.nanoTime();
+  }
+
+  void update(Row black, Row white, int score, float blackTime, float whiteTime) {
+    black.update(score, blackTime);
+    white.update(-score, whiteTime);
+    this.done.increment();
+  }
+
+  public long getDone() {
+    return this.done.sum();
+  }
+
+  public long getTotal() {
+    return this.total;
+  }
+
+  /** Estimated seconds left, from the average rate so far. */
+  public double eta() {
+    var done = getDone();
+    if (done == 0) return Double.NaN;
+    var elapsed = (System.nanoTime() - this.start) / 1e9;
+    return elapsed / done * (this.total - done);
+  }
+
+  public String toString() {
+    var sorted = new ArrayList<>(Arrays.asList(this.rows));
+    sorted.sort(Comparator.comparingLong((Row r) -> r.win.sum()).reversed()
+        .thenComparing(Comparator.comparingLong((Row r) -> r.score.sum()).reversed()));
+
+    var buf = new StringBuilder();
+    var eta = eta();
+    buf.append(String.format("***** STANDINGS %d/%d games, ETA %s *****%n",
+        getDone(), this.total, Double.isNaN(eta) ? "-" : formatSeconds(eta)));
+    buf.append("name|   n| win|lose|draw| score|  time" + NL);
+    for (var r: sorted) {
+      var n = r.games();
+      var t = n == 0 ? 0 : r.micros.sum() / 1e6 / n;
+      buf.append(String.format("%4s|%4d|%4d|%4d|%4d|%6d|%6.3fs%n",
+          r.player, n, r.win.sum(), r.lose.sum(), r.draw.sum(), r.score.sum(), t));
+    }
+    return buf.toString();
+  }
+
+  static String formatSeconds(double seconds) {
+    var s = Math.round(seconds);
+    return String.format("%d:%02d:%02d", s / 3600, s / 60 % 60, s % 60);
+  }
+}
@@ -0,0 +1,48 @@
+package ap25.league;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+class Stat {
+  int win;
+  int lose;
+  int draw;
+  int score;
+  float time;
+  float wall;
+  float cpu;
+  float left;
+  Histogram latency = new Histogram();
+  long allocated;
+  long allocatedThinks;
+  long gcMillis;
+  Map<String, Long> search = new TreeMap<>();
+
+  void update(float score, float time, float wall, float cpu, float left, Histogram latency,
+      Map<String, Long> search) {
+    if (score > 0) {
+      this.win += 1;
+      this.score += score;
+    } else if (score < 0) {
+      this.lose += 1;
+    } else {
+      this.draw += 1;
+      this.score += 1;
+    }
+    this.time += time;
+    this.wall += wall;
+    this.cpu += cpu;
+    this.left += left;
+    this.latency.add(latency);
+    search.forEach((k, v) -> this.search.merge(k, v, Long::sum));
+  }
+
+  // Games whose allocation could not be measured (allocated < 0) count for GC only.
+  void updateMemory(long allocated, long thinks, long gcMillis) {
+    if (allocated >= 0) {
+      this.allocated += allocated;
+      this.allocatedThinks += thinks;
+    }
+    this.gcMillis += gcMillis;
+  }
+}
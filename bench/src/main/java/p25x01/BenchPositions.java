@@ -0,0 +1,47 @@
+package p25x01;
+
+import ap25.*;
+import ap25.league.BoardSuite;
+import java.util.*;
+
+/**
+ * ベンチマーク用の固定局面集
+ *
+ * BoardSuite の局面（初期配置とブロック配置）から固定シードの乱数で
+ * 数手〜二十数手進めた局面を作る。同じ引数なら毎回同じ局面になるので、
+ * 実装を変えた前後で同じ入力を比べられる。
+ */
+final class BenchPositions {
+    static final long SEED = 25;
+
+    private BenchPositions() {
+    }
+
+    /**
+     * 公式盤面での局面列（終局していない局面だけ）
+     */
+    static List<Board> official(int count) {
+        Random rand = new Random(SEED);
+        List<? extends Board> starts = BoardSuite.generate(8, SEED);
+        List<Board> positions = new ArrayList<>();
+        while (positions.size() < count) {
+            Board board = starts.get(rand.nextInt(starts.size()));
+            int plies = 4 + rand.nextInt(20);
+            for (int i = 0; i < plies && !board.isEnd(); i++) {
+                List<Move> moves = board.findLegalMoves(board.getTurn());
+                board = board.placed(moves.get(rand.nextInt(moves.size())));
+            }
+            if (!board.isEnd()) {
+                positions.add(board);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * 同じ局面を OurBoard で
+     */
+    static List<OurBoard> ours(int count) {
+        return official(count).stream().map(Perft::toOurBoard).toList();
+    }
+}
@@ -0,0 +1,73 @@
+package p25x01;
+
+import ap25.*;
+import static ap25.Color.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * ビットボード表現の操作
+ *
+ * Color[] 盤面からの変換と、変換後の long 表現で済む処理
+ * （Zobristハッシュ・確定石）を、盤面から直接計算する版と並べて測る。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BitBoardBenchmark {
+    static final int POSITIONS = 256;
+
+    OurBoard[] boards;
+    long[] black;
+    long[] white;
+    long[] blocks;
+    int i;
+
+    @Setup
+    public void setup() {
+        boards = BenchPositions.ours(POSITIONS).toArray(OurBoard[]::new);
+        black = new long[POSITIONS];
+        white = new long[POSITIONS];
+        blocks = new long[POSITIONS];
+        for (int k = 0; k < POSITIONS; k++) {
+            black[k] = BitBoard.mask(boards[k], BLACK);
+            white[k] = BitBoard.mask(boards[k], WHITE);
+            blocks[k] = BitBoard.mask(boards[k], BLOCK);
+        }
+    }
+
+    int next() {
+        i = (i + 1) & (POSITIONS - 1);
+        return i;
+    }
+
+    @Benchmark
+    public long mask() {
+        return BitBoard.mask(boards[next()], BLACK);
+    }
+
+    @Benchmark
+    public long zobristFromBoard() {
+        return Zobrist.hash(boards[next()], BLACK);
+    }
+
+    @Benchmark
+    public long zobristFromBits() {
+        int k = next();
+        return Zobrist.hash(black[k], white[k], blocks[k], BLACK);
+    }
+
+    @Benchmark
+    public long stableBits() {
+        int k = next();
+        return Stability.stable(black[k], white[k], blocks[k]);
+    }
+
+    @Benchmark
+    public int stableDiff() {
+        return Stability.stableDiff(boards[next()], BLACK);
+    }
+}
@@ -0,0 +1,67 @@
+package p25x01;
+
+import ap25.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * 盤面実装ごとの基本操作
+ *
+ * 同じ局面集を OfficialBoard と OurBoard で回し、1回の呼び出しあたりの
+ * 時間を測る。-prof gc で1操作あたりの確保量も出る。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    static final int POSITIONS = 256;
+
+    @Param({ "OfficialBoard", "OurBoard" })
+    String impl;
+
+    Board[] boards;
+    Move[] moves;
+    int i;
+
+    @Setup
+    public void setup() {
+        List<? extends Board> list = impl.equals("OurBoard")
+                ? BenchPositions.ours(POSITIONS) : BenchPositions.official(POSITIONS);
+        boards = list.toArray(Board[]::new);
+        moves = new Move[boards.length];
+        for (int k = 0; k < boards.length; k++) {
+            moves[k] = boards[k].findLegalMoves(boards[k].getTurn()).get(0);
+        }
+    }
+
+    int next() {
+        i = (i + 1) & (POSITIONS - 1);
+        return i;
+    }
+
+    @Benchmark
+    public List<Move> findLegalMoves() {
+        Board b = boards[next()];
+        return b.findLegalMoves(b.getTurn());
+    }
+
+    @Benchmark
+    public Board placed() {
+        int k = next();
+        return boards[k].placed(moves[k]);
+    }
+
+    @Benchmark
+    public boolean isEnd() {
+        return boards[next()].isEnd();
+    }
+
+    @Benchmark
+    public int score() {
+        return boards[next()].score();
+    }
+}
@@ -0,0 +1,60 @@
+package p25x01;
+
+import ap25.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * 評価関数と手の並べ替え
+ *
+ * cacheBits=0 は1エントリだけの評価キャッシュで、ほぼ毎回評価し直す。
+ * 16 は既定の大きさで、局面集が小さいのでほぼ全てヒットする。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvalBenchmark {
+    static final int POSITIONS = 256;
+
+    @Param({ "0", "16" })
+    int cacheBits;
+
+    OurBoard[] boards;
+    List<Move>[] moves;
+    Evaluator evaluator;
+    MoveOrderer orderer;
+    int i;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        boards = BenchPositions.ours(POSITIONS).toArray(OurBoard[]::new);
+        moves = new List[POSITIONS];
+        for (int k = 0; k < POSITIONS; k++) {
+            moves[k] = boards[k].findLegalMoves(boards[k].getTurn());
+        }
+        evaluator = new Evaluator(new EvalCache(cacheBits));
+        orderer = new MoveOrderer(evaluator);
+    }
+
+    int next() {
+        i = (i + 1) & (POSITIONS - 1);
+        return i;
+    }
+
+    @Benchmark
+    public int evaluate() {
+        OurBoard b = boards[next()];
+        return evaluator.evaluate(b, b.getTurn());
+    }
+
+    @Benchmark
+    public List<Move> orderMoves() {
+        int k = next();
+        return orderer.orderMoves(moves[k], boards[k], boards[k].getTurn(), List.of());
+    }
+}
@@ -0,0 +1,54 @@
+package p25x01;
+
+import ap25.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * 固定深さの PVS 探索
+ *
+ * 置換表と評価キャッシュは試行ごとに1度だけ作り、呼び出しごとに
+ * 空にしてから探索するので、前の呼び出しの結果は再利用されない。
+ * 呼び出しごとの準備は clear だけで、割り当ては計測に入らない。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    static final int POSITIONS = 16;
+
+    @Param({ "4", "6" })
+    int depth;
+
+    OurBoard[] boards;
+    TranspositionTable tt;
+    EvalCache cache;
+    PVSEngine engine;
+    int i;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        boards = BenchPositions.ours(POSITIONS).toArray(OurBoard[]::new);
+        tt = new TranspositionTable();
+        cache = new EvalCache();
+        Evaluator evaluator = new Evaluator(cache);
+        engine = new PVSEngine(tt, evaluator, new MoveOrderer(evaluator));
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTables() {
+        tt.clear();
+        cache.clear();
+        i = (i + 1) % POSITIONS;
+    }
+
+    @Benchmark
+    public PVSResult search() {
+        OurBoard b = boards[i];
+        return engine.searchRoot(b, b.getTurn(), depth, new ArrayList<>(), Long.MAX_VALUE);
+    }
+}
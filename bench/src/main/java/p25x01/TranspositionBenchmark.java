@@ -0,0 +1,59 @@
+package p25x01;
+
+import ap25.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * 置換表の参照と登録
+ *
+ * 局面集の全局面を登録した表に対して probe / lookup / store を測る。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranspositionBenchmark {
+    static final int POSITIONS = 256;
+
+    OurBoard[] boards;
+    Move[] moves;
+    TranspositionTable table;
+    int i;
+
+    @Setup
+    public void setup() {
+        boards = BenchPositions.ours(POSITIONS).toArray(OurBoard[]::new);
+        moves = new Move[POSITIONS];
+        table = new TranspositionTable();
+        for (int k = 0; k < POSITIONS; k++) {
+            moves[k] = boards[k].findLegalMoves(boards[k].getTurn()).get(0);
+            table.store(boards[k], boards[k].getTurn(), moves[k], k, 4, TTEntry.EXACT);
+        }
+    }
+
+    int next() {
+        i = (i + 1) & (POSITIONS - 1);
+        return i;
+    }
+
+    @Benchmark
+    public TTEntry probe() {
+        int k = next();
+        return table.probe(boards[k], boards[k].getTurn(), 4, -10000, 10000);
+    }
+
+    @Benchmark
+    public TTEntry lookup() {
+        int k = next();
+        return table.lookup(boards[k], boards[k].getTurn());
+    }
+
+    @Benchmark
+    public void store() {
+        int k = next();
+        table.store(boards[k], boards[k].getTurn(), moves[k], k, 4, TTEntry.EXACT);
+    }
+}
@@ -0,0 +1,88 @@
+package p25x01;
+
+import ap25.*;
+import static ap25.Board.*;
+
+/**
+ * 6x6盤面のビットボード演算
+ *
+ * マスkをビットkに対応させた36bitのlongで石の集合を表す。
+ * 方向番号は Move.offsets と同じ並び（0=左, 1=左下, 2=下, 3=右下,
+ * 4=右, 5=右上, 6=上, 7=左上）。
+ */
+final class BitBoard {
+    static final long ALL = (1L << LENGTH) - 1;
+    static final long COL_A = 0x041041041L;
+    static final long COL_F = COL_A << (SIZE - 1);
+    static final long ROW_1 = (1L << SIZE) - 1;
+    static final long ROW_6 = ROW_1 << (SIZE * (SIZE - 1));
+    static final long EDGES = COL_A | COL_F | ROW_1 | ROW_6;
+    static final long CORNERS = 1L | (1L << (SIZE - 1))
+            | (1L << (SIZE * (SIZE - 1))) | (1L << (LENGTH - 1));
+
+    private BitBoard() {
+    }
+
+    /**
+     * 全マスを方向dirに1マスずらす（盤外に出たビットは捨てる）
+     */
+    static long shift(long b, int dir) {
+        switch (dir) {
+        case 0: return (b >>> 1) & ~COL_F;
+        case 1: return (b << (SIZE - 1)) & ~COL_F & ALL;
+        case 2: return (b << SIZE) & ALL;
+        case 3: return (b << (SIZE + 1)) & ~COL_A & ALL;
+        case 4: return (b << 1) & ~COL_A & ALL;
+        case 5: return (b >>> (SIZE - 1)) & ~COL_A;
+        case 6: return b >>> SIZE;
+        default: return (b >>> (SIZE + 1)) & ~COL_F;
+        }
+    }
+
+    /**
+     * 手番側（own）が打てるマスの集合。相手の石を挟めるempty内のマス
+     */
+    static long legalMoves(long own, long opp, long empty) {
+        long moves = 0;
+        for (int dir = 0; dir < 8; dir++) {
+            long t = shift(own, dir) & opp;
+            for (int i = 0; i < SIZE - 3; i++) {
+                t |= shift(t, dir) & opp;
+            }
+            moves |= shift(t, dir) & empty;
+        }
+        return moves;
+    }
+
+    /**
+     * マスkに打ったときに返る相手の石
+     */
+    static long flips(long own, long opp, int k) {
+        long flipped = 0;
+        for (int dir = 0; dir < 8; dir++) {
+            long line = 0;
+            long x = shift(1L << k, dir);
+            while ((x & opp) != 0) {
+                line |= x;
+                x = shift(x, dir);
+            }
+            if ((x & own) != 0) {
+                flipped |= line;
+            }
+        }
+        return flipped;
+    }
+
+    /**
+     * 指定した色のマスの集合
+     */
+    static long mask(Board board, Color color) {
+        long m = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            if (board.get(i) == color) {
+                m |= 1L << i;
+            }
+        }
+        return m;
+    }
+}
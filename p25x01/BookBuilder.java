@@ -0,0 +1,179 @@
+package p25x01;
+
+import ap25.*;
+import ap25.league.BoardSuite;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 定石ファイルの作成
+ *
+ * 初期局面と BoardSuite のブロック配置ごとに、全合法手を指定の手数まで
+ * 展開する（対称な局面や合流する局面は正規形のキーで1つにまとめる）。
+ * 末端の局面は PVSEngine の固定深さ探索で並列に評価し、途中の局面は
+ * 子の値を negamax で積み上げて最善手を決める。途中・末端のどちらも
+ * 最善手を OpeningBook の形式で書き出す。
+ * 配置とシードを League と同じにすれば、リーグの全ボードを含む。
+ *
+ * 使い方: java p25x01.BookBuilder 出力ファイル [手数] [探索深さ] [配置数] [シード] [スレッド数]
+ */
+public class BookBuilder {
+
+    /**
+     * 展開した局面（正規形）
+     */
+    static final class Node {
+        final OurBoard board;
+        final Color turn;
+        final int ply;
+        final List<Move> moves = new ArrayList<>();
+        final List<Node> children = new ArrayList<>();
+        boolean scored;
+        int score;
+        int move = Move.PASS;
+        int depth;
+
+        Node(OurBoard board, Color turn, int ply) {
+            this.board = board;
+            this.turn = turn;
+            this.ply = ply;
+        }
+
+        boolean isLeaf() {
+            return children.isEmpty();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage: BookBuilder out [plies] [depth] [layouts] [seed] [threads]");
+            System.exit(1);
+        }
+        Path out = Path.of(args[0]);
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int layouts = args.length > 3 ? Integer.parseInt(args[3]) : 16;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 25;
+        int threads = args.length > 5 ? Integer.parseInt(args[5])
+                : Runtime.getRuntime().availableProcessors();
+
+        List<Board> starts = new ArrayList<>();
+        BoardSuite.generate(layouts, seed).forEach(b -> starts.add(Perft.toOurBoard(b)));
+
+        long tm = System.currentTimeMillis();
+        Map<Long, Node> nodes = expand(starts, plies);
+        List<Node> leaves = nodes.values().stream().filter(Node::isLeaf).toList();
+        System.out.printf("%d starts, %d plies: %d positions, %d leaves%n",
+                starts.size(), plies, nodes.size(), leaves.size());
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            AtomicInteger done = new AtomicInteger();
+            pool.submit(() -> leaves.parallelStream().forEach(n -> {
+                searchLeaf(n, depth);
+                int d = done.incrementAndGet();
+                if (d % 500 == 0) {
+                    System.out.printf("  %d/%d leaves, %.1fs%n", d, leaves.size(),
+                            (System.currentTimeMillis() - tm) / 1000.0);
+                }
+            })).get();
+        } finally {
+            pool.shutdown();
+        }
+
+        SortedMap<Long, Integer> entries = new TreeMap<>();
+        for (Map.Entry<Long, Node> e : nodes.entrySet()) {
+            Node n = e.getValue();
+            score(n);
+            if (n.move != Move.PASS) {
+                entries.put(e.getKey(), OpeningBook.pack(n.move, n.depth, n.score));
+            }
+        }
+        OpeningBook.save(out, entries);
+        System.out.printf("%d entries written to %s in %.1fs%n",
+                entries.size(), out, (System.currentTimeMillis() - tm) / 1000.0);
+    }
+
+    /**
+     * 幅優先で plies 手まで展開する。最初に見つけた手数で登録するので
+     * 合流した局面も最短の手数で1度だけ展開される
+     */
+    static Map<Long, Node> expand(List<Board> starts, int plies) {
+        Map<Long, Node> nodes = new HashMap<>();
+        List<Node> level = new ArrayList<>();
+        for (Board start : starts) {
+            node(nodes, start, start.getTurn(), 0, level);
+        }
+        for (int ply = 0; ply < plies; ply++) {
+            List<Node> next = new ArrayList<>();
+            for (Node n : level) {
+                if (n.board.isEnd()) {
+                    continue;
+                }
+                for (Move m : n.board.findLegalMoves(n.turn)) {
+                    n.moves.add(m);
+                    n.children.add(node(nodes, n.board.placed(m), n.turn.flipped(), ply + 1, next));
+                }
+            }
+            level = next;
+        }
+        return nodes;
+    }
+
+    /**
+     * 正規形の局面を引く。初めて見た局面は登録して added にも加える
+     */
+    static Node node(Map<Long, Node> nodes, Board board, Color turn, int ply, List<Node> added) {
+        OpeningBook.Canonical c = OpeningBook.canonical(board, turn);
+        Node n = nodes.get(c.key);
+        if (n == null) {
+            n = new Node(c.board, turn, ply);
+            nodes.put(c.key, n);
+            added.add(n);
+        }
+        return n;
+    }
+
+    /**
+     * 末端の局面を固定深さで読む（終局なら石数差）
+     */
+    static void searchLeaf(Node n, int depth) {
+        if (n.board.isEnd()) {
+            n.score = Evaluator.terminalScore(n.board.count(n.turn) - n.board.count(n.turn.flipped()));
+        } else {
+            SearchContext context = SearchContext.acquire();
+            try {
+                PVSResult result = context.pvsEngine.searchRoot(n.board, n.turn, depth,
+                        new ArrayList<>(), Long.MAX_VALUE);
+                n.score = result.score;
+                n.move = result.move.getIndex();
+                n.depth = depth;
+            } finally {
+                SearchContext.release(context);
+            }
+        }
+        n.scored = true;
+    }
+
+    /**
+     * 途中の局面の値を子から negamax で求める
+     */
+    static void score(Node n) {
+        if (n.scored) {
+            return;
+        }
+        n.score = -Integer.MAX_VALUE;
+        for (int i = 0; i < n.children.size(); i++) {
+            Node child = n.children.get(i);
+            score(child);
+            if (-child.score > n.score) {
+                n.score = -child.score;
+                n.move = n.moves.get(i).getIndex();
+                n.depth = child.depth + 1;
+            }
+        }
+        n.scored = true;
+    }
+}
@@ -0,0 +1,149 @@
+package p25x01;
+
+import ap25.*;
+import static ap25.Board.*;
+import static ap25.Color.*;
+import java.util.*;
+
+/**
+ * 終盤完全読み
+ *
+ * 深さ制限も評価関数への切り替えもなく終局まで読むので、返す値はすべて
+ * Evaluator.terminalScore の尺度の厳密値。再帰は空き数の2倍の手数で
+ * 止まる。時間切れになったら読みかけの手を捨て、読み終えた手だけから選ぶ。
+ */
+class EndgameSolver {
+    private static final int INF = Evaluator.terminalScore(LENGTH) + 1;
+
+    private final Evaluator evaluator;
+    private final Map<Long, Integer> cache = new HashMap<>();
+    private long nodes;
+
+    /**
+     * 時間切れ。読みかけの値は使えないので根まで戻す
+     */
+    private static final class Timeout extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Timeout() {
+            super(null, null, false, false);
+        }
+    }
+
+    public EndgameSolver(Evaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    public Move solve(OurBoard board, Color color, long timeLimit) {
+        MyPlayer.log("[EndgameSolver] %d手を完全読み\n", board.findLegalMoves(color).size());
+        PVSResult result = solveRoot(board, color, timeLimit);
+        MyPlayer.log("[EndgameSolver] 最善手: %s (%d)\n", result.move, result.score);
+        return result.move;
+    }
+
+    /**
+     * ルートの全合法手を読み、最善手とその値を返す。1手も読み終えないうちに
+     * 時間切れになったら手は null
+     */
+    public PVSResult solveRoot(OurBoard board, Color color, long timeLimit) {
+        long deadline = System.currentTimeMillis() + timeLimit;
+        nodes = 0;
+
+        List<Move> moves = board.findLegalMoves(color);
+        Move bestMove = null;
+        int bestScore = -INF;
+
+        for (Move move : moves) {
+            if (System.currentTimeMillis() >= deadline - 100)
+                break;
+
+            try {
+                OurBoard newBoard = board.placed(move);
+                int score = -solveRecursiveSafe(newBoard, color.flipped(),
+                        -INF, -bestScore, deadline - 50);
+
+                if (score > bestScore || bestMove == null) {
+                    bestScore = score;
+                    bestMove = move;
+                }
+            } catch (Timeout e) {
+                MyPlayer.log("[EndgameSolver] %s: 時間切れ\n", move);
+                break;
+            }
+        }
+
+        return new PVSResult(bestMove, bestScore, bestMove != null ? List.of(bestMove) : List.of());
+    }
+
+    public void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * 直前の solveRoot で訪れたノード数
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    private int solveRecursiveSafe(OurBoard board, Color color, int alpha, int beta,
+            long deadline) {
+        nodes++;
+
+        if (System.currentTimeMillis() >= deadline) {
+            throw new Timeout();
+        }
+
+        long hash = calculateHash(board, color);
+        Integer cached = cache.get(hash);
+        if (cached != null) {
+            return cached;
+        }
+
+        // 確定石による上限で枝刈り。値はすべて終局評価値なので尺度がそろう
+        int upperBound = Evaluator.terminalScore(Stability.maxDiscDiff(board, color));
+        if (upperBound <= alpha) {
+            return upperBound;
+        }
+
+        List<Move> moves = board.findLegalMoves(color);
+
+        if (moves.get(0).isPass()) {
+            if (board.findLegalMoves(color.flipped()).get(0).isPass()) {
+                // ゲーム終了
+                int result = evaluator.evaluateTerminal(board, color);
+                cache.put(hash, result);
+                return result;
+            } else {
+                // パス
+                return -solveRecursiveSafe(board, color.flipped(), -beta, -alpha, deadline);
+            }
+        }
+
+        int alphaOrig = alpha;
+        int bestScore = -INF;
+        for (Move move : moves) {
+            OurBoard newBoard = board.placed(move);
+            int score = -solveRecursiveSafe(newBoard, color.flipped(), -beta, -alpha, deadline);
+            bestScore = Math.max(bestScore, score);
+            alpha = Math.max(alpha, score);
+            if (alpha >= beta)
+                break;
+        }
+
+        // 窓の内側に収まった値だけが厳密値なのでキャッシュする
+        if (alphaOrig < bestScore && bestScore < beta) {
+            cache.put(hash, bestScore);
+        }
+        return bestScore;
+    }
+
+    private long calculateHash(OurBoard board, Color color) {
+        long hash = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            Color c = board.get(i);
+            hash = hash * 3 + (c == BLACK ? 1 : (c == WHITE ? 2 : 0));
+        }
+        return hash * 2 + (color == BLACK ? 1 : 0);
+    }
+}
@@ -0,0 +1,77 @@
+package p25x01;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 評価値キャッシュ（ダイレクトマップ）
+ *
+ * 1エントリを1つのlongに詰める: 上位32bitがハッシュの検証用ビット、
+ * 下位32bitが評価値。インデックスはハッシュの下位ビットから取る。
+ * 読み書きはopaqueアクセスで1ワード単位に行うので、ロックなしで
+ * 複数の探索スレッドから共有しても壊れたエントリは見えない。
+ */
+class EvalCache {
+    static final int DEFAULT_BITS = 16; // 64K entries (512KB)
+    static final int MISS = Integer.MIN_VALUE;
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final long CHECK_MASK = 0xFFFFFFFF00000000L;
+
+    private final long[] slots;
+    private final int mask;
+
+    // 統計
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    public EvalCache() {
+        this(DEFAULT_BITS);
+    }
+
+    public EvalCache(int bits) {
+        this.slots = new long[1 << bits];
+        this.mask = (1 << bits) - 1;
+    }
+
+    /**
+     * 局面ハッシュ（手番込み）で引く。見つからなければMISSを返す
+     */
+    public int probe(long hash) {
+        probes.increment();
+        long slot = (long) SLOTS.getOpaque(slots, (int) hash & mask);
+        // 未使用のスロットは0。検証用ビットが0のハッシュで当たりにしない
+        // （同じ値になる「検証用ビット0・評価値0」の格納は取りこぼすだけ）
+        if (slot == 0 || (slot & CHECK_MASK) != (hash & CHECK_MASK)) {
+            return MISS;
+        }
+        hits.increment();
+        return (int) slot;
+    }
+
+    public void store(long hash, int score) {
+        long slot = (hash & CHECK_MASK) | (score & 0xFFFFFFFFL);
+        SLOTS.setOpaque(slots, (int) hash & mask, slot);
+    }
+
+    public void clear() {
+        Arrays.fill(slots, 0);
+        probes.reset();
+        hits.reset();
+    }
+
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public double hitRate() {
+        long p = probes.sum();
+        return p == 0 ? 0 : (double) hits.sum() / p;
+    }
+}
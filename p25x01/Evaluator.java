@@ -0,0 +1,118 @@
+package p25x01;
+
+import ap25.*;
+import static ap25.Board.*;
+import static ap25.Color.*;
+
+/**
+ * 評価関数
+ */
+class Evaluator {
+    // 改良版位置価値表（MyPlayer2に近づける）
+    private static final int[][] POSITION_VALUES = {
+            { 100, -10, 10, 10, -10, 100 },
+            { -10, -20, 0, 0, -20, -10 },
+            { 10, 0, 5, 5, 0, 10 },
+            { 10, 0, 5, 5, 0, 10 },
+            { -10, -20, 0, 0, -20, -10 },
+            { 100, -10, 10, 10, -10, 100 }
+    };
+
+    private final EvalCache cache;
+
+    public Evaluator() {
+        this(new EvalCache());
+    }
+
+    public Evaluator(EvalCache cache) {
+        this.cache = cache;
+    }
+
+    public int evaluate(OurBoard board, Color color) {
+        long hash = Zobrist.hash(board, color);
+        int score = cache.probe(hash);
+        if (score == EvalCache.MISS) {
+            score = evaluateUncached(board, color);
+            cache.store(hash, score);
+        }
+        return score;
+    }
+
+    public EvalCache getCache() {
+        return cache;
+    }
+
+    private int evaluateUncached(OurBoard board, Color color) {
+        int score = 0;
+
+        // 1. 位置価値（重み軽減）
+        for (int i = 0; i < LENGTH; i++) {
+            Color c = board.get(i);
+            int row = i / SIZE;
+            int col = i % SIZE;
+
+            if (c == color) {
+                score += POSITION_VALUES[row][col];
+            } else if (c == color.flipped()) {
+                score -= POSITION_VALUES[row][col];
+            }
+        }
+
+        // 2. 機動性（重み軽減）
+        int myMobility = board.findLegalMoves(color).size();
+        int opMobility = board.findLegalMoves(color.flipped()).size();
+        score += (myMobility - opMobility) * 15; // 30→15に削減
+
+        // 3. 確定石（簡素化）
+        score += evaluateStability(board, color) * 10; // 25→10に削減
+
+        // 4. 石数差（終盤のみ、重み軽減）
+        int emptyCount = countEmpty(board);
+        if (emptyCount <= 12) {
+            int stoneDiff = board.count(color) - board.count(color.flipped());
+            int weight = Math.max(3, 15 - emptyCount); // 重み軽減
+            score += stoneDiff * weight;
+        }
+
+        // 5. パス強制（重み軽減）
+        if (myMobility == 1 && board.findLegalMoves(color).get(0).isPass()) {
+            score -= 80; // 150→80に削減
+        }
+        if (opMobility == 1 && board.findLegalMoves(color.flipped()).get(0).isPass()) {
+            score += 80; // 150→80に削減
+        }
+
+        return score;
+    }
+
+    public int evaluateTerminal(OurBoard board, Color color) {
+        return terminalScore(board.count(color) - board.count(color.flipped()));
+    }
+
+    /**
+     * 石数差を終局評価値の尺度に変換する
+     */
+    static int terminalScore(int stoneDiff) {
+        if (stoneDiff > 0) {
+            return 8000 + stoneDiff * 100;
+        } else if (stoneDiff < 0) {
+            return -8000 + stoneDiff * 100;
+        } else {
+            return 0;
+        }
+    }
+
+    private int evaluateStability(OurBoard board, Color color) {
+        // 確定石数の差（コーナー1つ分が従来の3点と同じになるように）
+        return Stability.stableDiff(board, color) * 3;
+    }
+
+    private int countEmpty(OurBoard board) {
+        int count = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            if (board.get(i) == NONE)
+                count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,305 @@
+package p25x01;
+
+import ap25.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 局面ファイルの一括ラベル付け
+ *
+ * 読み込み → 重複除去 → 探索 → 書き出し のパイプライン。段の間は
+ * 容量付きキューでつなぐので、探索が遅ければ読み込みが待たされる。
+ * 空きマスが少ない局面は Solver で終局まで読み切り（exact を立てる）、
+ * それ以外は PVSEngine で固定深さ探索し、score/move を埋めたレコードを
+ * 追記する。どこかの段が例外で落ちたら全段を止めて投げ直す。
+ *
+ * 出力ファイルが既にあれば、そこに含まれる局面は処理済みとして
+ * 飛ばすので、中断したところから再開できる。
+ *
+ * 使い方: java p25x01.Labeler 入力 出力 [深さ] [完全読みの空き数] [スレッド数]
+ */
+public class Labeler {
+    static final int QUEUE_CAPACITY = 4096;
+    static final int BUFFER_SIZE = 1 << 16;
+    static final long REPORT_INTERVAL_MS = 10000;
+    static final int SOLVER_TABLE_BITS = 16;
+    static final PositionRecord END = new PositionRecord();
+
+    final int depth;
+    final int solveEmpties;
+    final int threads;
+
+    final BlockingQueue<PositionRecord> searchQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    final BlockingQueue<PositionRecord> writeQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    final LongHashSet seen = new LongHashSet();
+
+    // 段ごとの統計
+    final AtomicLong read = new AtomicLong();
+    final AtomicLong duplicates = new AtomicLong();
+    final AtomicLong resumed = new AtomicLong();
+    final AtomicLong searched = new AtomicLong();
+    final AtomicLong solved = new AtomicLong();
+    final AtomicLong written = new AtomicLong();
+
+    Labeler(int depth, int solveEmpties, int threads) {
+        this.depth = depth;
+        this.solveEmpties = solveEmpties;
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: Labeler in out [depth] [solveEmpties] [threads]");
+            System.exit(1);
+        }
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+        int solveEmpties = args.length > 3 ? Integer.parseInt(args[3]) : 8;
+        int threads = args.length > 4 ? Integer.parseInt(args[4])
+                : Runtime.getRuntime().availableProcessors();
+
+        new Labeler(depth, solveEmpties, threads).run(Path.of(args[0]), Path.of(args[1]));
+    }
+
+    void run(Path in, Path out) throws Exception {
+        resume(out);
+
+        long start = System.currentTimeMillis();
+        ExecutorService pool = Executors.newFixedThreadPool(threads + 2);
+        CompletionService<Void> stages = new ExecutorCompletionService<>(pool);
+        AtomicInteger running = new AtomicInteger(threads);
+
+        stages.submit(() -> {
+            readAll(in);
+            return null;
+        });
+        for (int i = 0; i < threads; i++) {
+            stages.submit(() -> {
+                label(running);
+                return null;
+            });
+        }
+        stages.submit(() -> {
+            writeAll(out);
+            return null;
+        });
+        pool.shutdown();
+
+        try {
+            for (int remaining = threads + 2; remaining > 0; ) {
+                Future<Void> f = stages.poll(REPORT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (f == null) {
+                    report(start);
+                    continue;
+                }
+                f.get();
+                remaining--;
+            }
+        } catch (ExecutionException e) {
+            // 落ちた段の代わりにキューを読む者がいないので、残りの段は
+            // put/take で待ち続ける。割り込んで止めてから投げ直す
+            pool.shutdownNow();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            report(start);
+            throw e;
+        }
+        report(start);
+    }
+
+    /**
+     * 既存の出力を読み、処理済みの局面を登録する（末尾の書きかけは切り捨てる）
+     */
+    void resume(Path out) throws IOException {
+        if (!Files.exists(out)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(out, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long complete = channel.size() / PositionRecord.SIZE_BYTES * PositionRecord.SIZE_BYTES;
+            channel.truncate(complete);
+            forEachRecord(channel, r -> {
+                seen.add(r.hash());
+                resumed.incrementAndGet();
+            });
+        }
+        System.err.printf("[Labeler] 再開: 処理済み %d 局面\n", resumed.get());
+    }
+
+    /**
+     * 段1: 読み込みと重複除去
+     */
+    void readAll(Path in) throws Exception {
+        try (FileChannel channel = FileChannel.open(in, StandardOpenOption.READ)) {
+            forEachRecord(channel, r -> {
+                read.incrementAndGet();
+                if (!seen.add(r.hash())) {
+                    duplicates.incrementAndGet();
+                    return;
+                }
+                put(searchQueue, r);
+            });
+        } finally {
+            for (int i = 0; i < threads; i++) {
+                put(searchQueue, END);
+            }
+        }
+    }
+
+    /**
+     * 段2: 探索（スレッドごとに探索部品を持つ）
+     */
+    void label(AtomicInteger running) throws IOException, InterruptedException {
+        Evaluator evaluator = new Evaluator();
+        TranspositionTable tt = new TranspositionTable();
+        PVSEngine engine = new PVSEngine(tt, evaluator, new MoveOrderer(evaluator));
+        Solver solver = new Solver(new SolverTable(SOLVER_TABLE_BITS, null), 1);
+
+        try {
+            PositionRecord r;
+            while ((r = searchQueue.take()) != END) {
+                OurBoard board = r.toBoard();
+                PVSResult result;
+                if (r.empties() <= solveEmpties) {
+                    result = solver.solveRoot(board, r.turn);
+                    result = new PVSResult(result.move, Evaluator.terminalScore(result.score), result.pv);
+                    r.exact = true;
+                    solved.incrementAndGet();
+                } else {
+                    tt.clear(); // ラベルがレコードの処理順に左右されないように
+                    result = engine.searchRoot(board, r.turn, depth, new ArrayList<>(), Long.MAX_VALUE);
+                    r.exact = false;
+                }
+                r.move = result.move.getIndex();
+                r.score = result.score;
+                searched.incrementAndGet();
+                writeQueue.put(r);
+            }
+        } finally {
+            if (running.decrementAndGet() == 0) {
+                writeQueue.put(END);
+            }
+        }
+    }
+
+    /**
+     * 段3: 書き出し（バッファが埋まるたびに追記）
+     */
+    void writeAll(Path out) throws Exception {
+        try (FileChannel channel = FileChannel.open(out, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            PositionRecord r;
+            while ((r = writeQueue.take()) != END) {
+                if (buf.remaining() < PositionRecord.SIZE_BYTES) {
+                    SelfPlay.flush(channel, buf);
+                }
+                r.write(buf);
+                written.incrementAndGet();
+            }
+            SelfPlay.flush(channel, buf);
+        }
+    }
+
+    void report(long start) {
+        double sec = Math.max(1, System.currentTimeMillis() - start) / 1000.0;
+        System.err.printf("[Labeler] 読込 %d (%.0f/s, 重複 %d, 処理済み %d) | 探索 %d (%.1f/s, 完全読み %d) | 書出 %d (%.1f/s)\n",
+                read.get(), read.get() / sec, duplicates.get(), resumed.get(),
+                searched.get(), searched.get() / sec, solved.get(),
+                written.get(), written.get() / sec);
+    }
+
+    interface RecordConsumer {
+        void accept(PositionRecord r) throws Exception;
+    }
+
+    static void forEachRecord(FileChannel channel, RecordConsumer consumer) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        channel.position(0);
+        while (channel.read(buf) > 0 || buf.position() > 0) {
+            buf.flip();
+            if (buf.remaining() < PositionRecord.SIZE_BYTES) {
+                break;
+            }
+            while (buf.remaining() >= PositionRecord.SIZE_BYTES) {
+                try {
+                    consumer.accept(PositionRecord.read(buf));
+                } catch (IOException | RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IOException(e);
+                }
+            }
+            buf.compact();
+        }
+    }
+
+    static <T> void put(BlockingQueue<T> queue, T item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
+
+/**
+ * longのオープンアドレス法ハッシュ集合（重複除去用）
+ */
+class LongHashSet {
+    private long[] keys = new long[1 << 16];
+    private int size;
+    private boolean hasZero;
+
+    /**
+     * 追加できたらtrue、既にあればfalse
+     */
+    public synchronized boolean add(long key) {
+        if (key == 0) {
+            boolean added = !hasZero;
+            hasZero = true;
+            return added;
+        }
+        if (size * 2 >= keys.length) {
+            grow();
+        }
+        if (!insert(keys, key)) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    public synchronized int size() {
+        return size + (hasZero ? 1 : 0);
+    }
+
+    private static boolean insert(long[] table, long key) {
+        int mask = table.length - 1;
+        int i = (int) (key ^ (key >>> 32)) & mask;
+        while (table[i] != 0) {
+            if (table[i] == key) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = key;
+        return true;
+    }
+
+    private void grow() {
+        long[] next = new long[keys.length * 2];
+        for (long key : keys) {
+            if (key != 0) {
+                insert(next, key);
+            }
+        }
+        keys = next;
+    }
+}
@@ -0,0 +1,74 @@
+package p25x01;
+
+import ap25.*;
+import static ap25.Board.*;
+import java.util.*;
+
+/**
+ * 手順並び替え
+ */
+class MoveOrderer {
+    private final Evaluator evaluator;
+
+    public MoveOrderer(Evaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    public List<Move> orderMoves(List<Move> moves, OurBoard board, Color color, List<Move> pv) {
+        List<ScoredMove> scoredMoves = new ArrayList<>();
+
+        for (Move move : moves) {
+            int score = 0;
+
+            // PVムーブ最優先
+            if (pv != null && !pv.isEmpty() && move.equals(pv.get(0))) {
+                score += 10000;
+            }
+
+            // 基本位置価値
+            int pos = move.getIndex();
+            if (isCorner(pos)) {
+                score += 2000;
+            } else if (isXSquare(pos)) {
+                score -= 500;
+            } else if (isEdge(pos)) {
+                score += 200;
+            }
+
+            // 取得石数
+            OurBoard after = board.placed(move);
+            int captured = board.count(color.flipped()) - after.count(color.flipped());
+            score += captured * 50;
+
+            // 機動性変化
+            int myMobBefore = board.findLegalMoves(color).size();
+            int opMobBefore = board.findLegalMoves(color.flipped()).size();
+            int myMobAfter = after.findLegalMoves(color).size();
+            int opMobAfter = after.findLegalMoves(color.flipped()).size();
+
+            int mobilityChange = (myMobAfter - opMobAfter) - (myMobBefore - opMobBefore);
+            score += mobilityChange * 30;
+
+            scoredMoves.add(new ScoredMove(move, score));
+        }
+
+        scoredMoves.sort((a, b) -> Integer.compare(b.score, a.score));
+        return scoredMoves.stream().map(sm -> sm.move).toList();
+    }
+
+    private boolean isCorner(int pos) {
+        return pos == 0 || pos == SIZE - 1 || pos == SIZE * (SIZE - 1) || pos == SIZE * SIZE - 1;
+    }
+
+    private boolean isEdge(int pos) {
+        int row = pos / SIZE;
+        int col = pos % SIZE;
+        return row == 0 || row == SIZE - 1 || col == 0 || col == SIZE - 1;
+    }
+
+    private boolean isXSquare(int pos) {
+        return pos == 1 || pos == SIZE - 2 || pos == SIZE || pos == 2 * SIZE - 1 ||
+                pos == SIZE * (SIZE - 2) || pos == SIZE * (SIZE - 1) + 1 ||
+                pos == SIZE * SIZE - SIZE - 1 || pos == SIZE * SIZE - 2;
+    }
+}
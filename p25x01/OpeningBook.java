@@ -0,0 +1,196 @@
+package p25x01;
+
+import ap25.*;
+import static ap25.Board.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * 定石ファイル（オープニングブック）
+ *
+ * 局面は盤の8つの対称変換のうち Zobrist ハッシュが最小になる向き
+ * （正規形）に直し、そのハッシュをキーにして最善手・評価値・読みの深さを
+ * 持つ。対称な局面は同じキーになるので1件で済む。最善手は正規形の
+ * 座標で持ち、引くときに元の盤の向きへ戻す。
+ *
+ * ファイルはキーで整列した固定長レコードの並び（ビッグエンディアン）:
+ *   "AP25BOOK" 件数(int) { キー(long) 手(byte) 深さ(byte) 評価値(short) } × 件数
+ * 読み込んだあとは配列の二分探索で引く。BookBuilder が作る。
+ */
+final class OpeningBook {
+    static final byte[] MAGIC = "AP25BOOK".getBytes(StandardCharsets.US_ASCII);
+    static final String DEFAULT_PATH = "p25x01/book.bin";
+    static final int[][] SYMMETRIES = symmetries();
+    static final int EXACT_DEPTH = 0xFF; // 終局まで読み切った値（Solver）
+    static final OpeningBook EMPTY = new OpeningBook(new long[0], new int[0]);
+
+    private static OpeningBook defaultBook;
+
+    private final long[] keys;
+    private final int[] values; // 手 << 24 | 深さ << 16 | 評価値（下位16bit）
+
+    private OpeningBook(long[] keys, int[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * 正規形に直した局面
+     */
+    static final class Canonical {
+        final OurBoard board;
+        final long key;
+        final int symmetry;
+
+        Canonical(OurBoard board, long key, int symmetry) {
+            this.board = board;
+            this.key = key;
+            this.symmetry = symmetry;
+        }
+
+        /**
+         * 正規形の座標のマスを元の盤の座標に戻す
+         */
+        int toOriginal(int index) {
+            int[] p = SYMMETRIES[symmetry];
+            for (int k = 0; k < LENGTH; k++) {
+                if (p[k] == index) {
+                    return k;
+                }
+            }
+            return index;
+        }
+    }
+
+    /**
+     * 8つの対称変換（SYMMETRIES[s][k] は マスk の移り先）
+     */
+    static int[][] symmetries() {
+        int[][] result = new int[8][LENGTH];
+        for (int s = 0; s < 8; s++) {
+            for (int k = 0; k < LENGTH; k++) {
+                int x = k % SIZE, y = k / SIZE;
+                if ((s & 1) != 0) x = SIZE - 1 - x;
+                if ((s & 2) != 0) y = SIZE - 1 - y;
+                result[s][k] = (s & 4) != 0 ? Move.index(y, x) : Move.index(x, y);
+            }
+        }
+        return result;
+    }
+
+    static Canonical canonical(Board board, Color turn) {
+        Canonical best = null;
+        for (int s = 0; s < SYMMETRIES.length; s++) {
+            OurBoard t = new OurBoard();
+            for (int k = 0; k < LENGTH; k++) {
+                t.set(SYMMETRIES[s][k], board.get(k));
+            }
+            t.move = Move.ofPass(turn.flipped());
+            long key = Zobrist.hash(t, turn);
+            if (best == null || key < best.key) {
+                best = new Canonical(t, key, s);
+            }
+        }
+        return best;
+    }
+
+    static int pack(int move, int depth, int score) {
+        return (move & 0xFF) << 24 | (depth & 0xFF) << 16 | (score & 0xFFFF);
+    }
+
+    static int move(int value) {
+        return (byte) (value >>> 24);
+    }
+
+    static int depth(int value) {
+        return (value >>> 16) & 0xFF;
+    }
+
+    static int score(int value) {
+        return (short) value;
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    /**
+     * 全エントリ（キー → pack した値）。書き足して save し直すのに使う
+     */
+    SortedMap<Long, Integer> entries() {
+        SortedMap<Long, Integer> entries = new TreeMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            entries.put(keys[i], values[i]);
+        }
+        return entries;
+    }
+
+    /**
+     * 手番側の定石手。載っていなければ null
+     */
+    Move probe(Board board, Color turn) {
+        if (keys.length == 0) {
+            return null;
+        }
+        Canonical c = canonical(board, turn);
+        int i = Arrays.binarySearch(keys, c.key);
+        if (i < 0) {
+            return null;
+        }
+        int move = move(values[i]);
+        return move < 0 ? null : new Move(c.toOriginal(move), turn);
+    }
+
+    /**
+     * 既定の定石ファイル（-Dp25x01.book で変更）。無ければ空
+     */
+    static synchronized OpeningBook getDefault() {
+        if (defaultBook == null) {
+            Path path = Path.of(System.getProperty("p25x01.book", DEFAULT_PATH));
+            defaultBook = EMPTY;
+            if (Files.exists(path)) {
+                try {
+                    defaultBook = load(path);
+                } catch (IOException e) {
+                    MyPlayer.log("[Book] 読み込み失敗: %s\n", e);
+                }
+            }
+        }
+        return defaultBook;
+    }
+
+    static OpeningBook load(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("not a book file: " + path);
+            }
+            int n = in.readInt();
+            long[] keys = new long[n];
+            int[] values = new int[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = in.readLong();
+                values[i] = in.readInt();
+            }
+            return new OpeningBook(keys, values);
+        }
+    }
+
+    /**
+     * キー → pack した値 を整列して書き出す
+     */
+    static void save(Path path, SortedMap<Long, Integer> entries) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.write(MAGIC);
+            out.writeInt(entries.size());
+            for (Map.Entry<Long, Integer> e : entries.entrySet()) {
+                out.writeLong(e.getKey());
+                out.writeInt(e.getValue());
+            }
+        }
+    }
+}
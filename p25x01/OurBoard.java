@@ -1,7 +1,6 @@
 package p25x01;
 
 import static ap25.Color.BLACK;
-import static ap25.Color.BLOCK;
 import static ap25.Color.NONE;
 import static ap25.Color.WHITE;
 import java.util.ArrayList;
@@ -70,13 +69,24 @@ public class OurBoard implements Board, Cloneable {
   }
 
   public int count(Color color) {
-    return countAll().getOrDefault(color, 0L).intValue();
+    return Long.bitCount(mask(color));
   }
 
   public boolean isEnd() {
-    var lbs = findNoPassLegalIndexes(BLACK);
-    var lws = findNoPassLegalIndexes(WHITE);
-    return lbs.size() == 0 && lws.size() == 0;
+    var bs = mask(BLACK);
+    var ws = mask(WHITE);
+    var ns = mask(NONE);
+    return BitBoard.legalMoves(bs, ws, ns) == 0 && BitBoard.legalMoves(ws, bs, ns) == 0;
+  }
+
+  // Squares holding the color as a bit set (square k is bit k), for BitBoard.
+  long mask(Color color) {
+    long m = 0;
+    for (int k = 0; k < LENGTH; k++) {
+      if (this.board[k] == color)
+        m |= 1L << k;
+    }
+    return m;
   }
 
   public Color winner() {
@@ -123,43 +133,12 @@ public class OurBoard implements Board, Cloneable {
 
   List<Integer> findNoPassLegalIndexes(Color color) {
     var moves = new ArrayList<Integer>();
-    for (int k = 0; k < LENGTH; k++) {
-      var c = this.board[k];
-      if (c != NONE)
-        continue;
-      for (var line : lines(k)) {
-        var outflanking = outflanked(line, color);
-        if (outflanking.size() > 0)
-          moves.add(k);
-      }
-    }
+    var m = BitBoard.legalMoves(mask(color), mask(color.flipped()), mask(NONE));
+    for (; m != 0; m &= m - 1)
+      moves.add(Long.numberOfTrailingZeros(m));
     return moves;
   }
 
-  List<List<Integer>> lines(int k) {
-    var lines = new ArrayList<List<Integer>>();
-    for (int dir = 0; dir < 8; dir++) {
-      var line = Move.line(k, dir);
-      lines.add(line);
-    }
-    return lines;
-  }
-
-  List<Move> outflanked(List<Integer> line, Color color) {
-    if (line.size() <= 1)
-      return new ArrayList<>();
-    var flippables = new ArrayList<Move>();
-    for (int k : line) {
-      var c = get(k);
-      if (c == NONE || c == BLOCK)
-        break;
-      if (c == color)
-        return flippables;
-      flippables.add(new Move(k, color));
-    }
-    return new ArrayList<>();
-  }
-
   public OurBoard placed(Move move) {
     var b = clone();
     b.move = move;
@@ -169,12 +148,9 @@ public class OurBoard implements Board, Cloneable {
 
     var k = move.getIndex();
     var color = move.getColor();
-    var lines = b.lines(k);
-    for (var line : lines) {
-      for (var p : outflanked(line, color)) {
-        b.board[p.getIndex()] = color;
-      }
-    }
+    var flips = BitBoard.flips(mask(color), mask(color.flipped()), k);
+    for (; flips != 0; flips &= flips - 1)
+      b.board[Long.numberOfTrailingZeros(flips)] = color;
     b.set(k, color);
 
     return b;
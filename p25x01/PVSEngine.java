@@ -0,0 +1,220 @@
+package p25x01;
+
+import ap25.*;
+import java.util.*;
+
+/**
+ * PVS (Principal Variation Search) エンジン
+ */
+class PVSEngine {
+    private final TranspositionTable transTable;
+    private final Evaluator evaluator;
+    private final MoveOrderer moveOrderer;
+    private final SearchStats stats = new SearchStats();
+    private long nodesSearched;
+
+    public PVSEngine(TranspositionTable transTable, Evaluator evaluator, MoveOrderer moveOrderer) {
+        this.transTable = transTable;
+        this.evaluator = evaluator;
+        this.moveOrderer = moveOrderer;
+    }
+
+    /**
+     * ルート探索
+     */
+    public PVSResult searchRoot(OurBoard board, Color color, int depth,
+            List<Move> previousPV, long deadline) {
+        nodesSearched = 0;
+        long startNanos = System.nanoTime();
+
+        List<Move> moves = board.findLegalMoves(color);
+        moves = moveOrderer.orderMoves(moves, board, color, previousPV);
+
+        Move bestMove = null;
+        int bestScore = -10000;
+        List<Move> bestPV = new ArrayList<>();
+
+        int alpha = -10000;
+        int beta = 10000;
+
+        for (int i = 0; i < moves.size(); i++) {
+            if (System.currentTimeMillis() >= deadline)
+                break;
+
+            Move move = moves.get(i);
+            OurBoard newBoard = board.placed(move);
+
+            int score;
+            List<Move> pv = new ArrayList<>();
+            pv.add(move);
+
+            if (i == 0) {
+                // 最初の手は完全窓で探索
+                PVSResult result = pvs(newBoard, color.flipped(), depth - 1,
+                        -beta, -alpha, pv, deadline);
+                score = -result.score;
+                if (result.pv != null) {
+                    pv.addAll(result.pv);
+                }
+            } else {
+                // 2手目以降はnull window探索
+                PVSResult result = pvs(newBoard, color.flipped(), depth - 1,
+                        -alpha - 1, -alpha, new ArrayList<>(), deadline);
+                score = -result.score;
+
+                if (score > alpha && score < beta) {
+                    // re-search with full window
+                    stats.researches++;
+                    pv = new ArrayList<>();
+                    pv.add(move);
+                    result = pvs(newBoard, color.flipped(), depth - 1,
+                            -beta, -alpha, pv, deadline);
+                    score = -result.score;
+                    if (result.pv != null) {
+                        pv.addAll(result.pv);
+                    }
+                }
+            }
+
+            // 全手が -10000 以下（大差の負け）でも最初に読んだ手は残す
+            if (score > bestScore || bestMove == null) {
+                bestScore = score;
+                bestMove = move;
+                bestPV = pv;
+            }
+
+            alpha = Math.max(alpha, score);
+            if (alpha >= beta)
+                break; // カットオフ
+        }
+
+        stats.iterationDone(depth, nodesSearched, System.nanoTime() - startNanos,
+                System.currentTimeMillis() >= deadline);
+        return new PVSResult(bestMove, bestScore, bestPV);
+    }
+
+    /**
+     * PVS探索
+     */
+    private PVSResult pvs(OurBoard board, Color color, int depth, int alpha, int beta,
+            List<Move> pv, long deadline) {
+        nodesSearched++;
+        stats.nodes++;
+
+        // 時間チェック
+        if (System.currentTimeMillis() >= deadline) {
+            return new PVSResult(null, evaluator.evaluate(board, color), null);
+        }
+
+        // 深度チェック
+        if (depth <= 0) {
+            return new PVSResult(null, evaluator.evaluate(board, color), null);
+        }
+
+        // 置換表チェック
+        TTEntry entry = transTable.lookup(board, color);
+        stats.ttProbes++;
+        if (entry != null) {
+            stats.ttHits++;
+            if (entry.cutoff(depth, alpha, beta)) {
+                stats.ttCutoffs++;
+                return new PVSResult(entry.bestMove, entry.score, null);
+            }
+        }
+
+        List<Move> moves = board.findLegalMoves(color);
+
+        // パス処理
+        if (moves.isEmpty()) {
+            List<Move> opponentMoves = board.findLegalMoves(color.flipped());
+            if (opponentMoves.isEmpty()) {
+                // ゲーム終了
+                return new PVSResult(null, evaluator.evaluateTerminal(board, color), null);
+            } else {
+                // パス
+                PVSResult result = pvs(board, color.flipped(), depth, -beta, -alpha,
+                        new ArrayList<>(), deadline);
+                return new PVSResult(Move.ofPass(color), -result.score, null);
+            }
+        }
+
+        // 手順並び替え
+        moves = moveOrderer.orderMoves(moves, board, color, pv);
+
+        Move bestMove = null;
+        int bestScore = -10000;
+        List<Move> bestPV = null;
+        int flag = TTEntry.UPPER_BOUND;
+
+        for (int i = 0; i < moves.size(); i++) {
+            if (System.currentTimeMillis() >= deadline)
+                break;
+
+            Move move = moves.get(i);
+            OurBoard newBoard = board.placed(move);
+
+            int score;
+            List<Move> childPV = new ArrayList<>();
+
+            if (i == 0) {
+                // 最初の手は完全窓
+                PVSResult result = pvs(newBoard, color.flipped(), depth - 1,
+                        -beta, -alpha, childPV, deadline);
+                score = -result.score;
+                if (result.pv != null)
+                    childPV.addAll(result.pv);
+            } else {
+                // null window探索
+                PVSResult result = pvs(newBoard, color.flipped(), depth - 1,
+                        -alpha - 1, -alpha, new ArrayList<>(), deadline);
+                score = -result.score;
+
+                if (score > alpha && score < beta) {
+                    // re-search
+                    stats.researches++;
+                    childPV = new ArrayList<>();
+                    result = pvs(newBoard, color.flipped(), depth - 1,
+                            -beta, -alpha, childPV, deadline);
+                    score = -result.score;
+                    if (result.pv != null)
+                        childPV.addAll(result.pv);
+                }
+            }
+
+            if (score > bestScore || bestMove == null) {
+                bestScore = score;
+                bestMove = move;
+                bestPV = childPV;
+            }
+
+            if (score >= beta) {
+                // Beta cutoff
+                stats.betaCutoffs++;
+                if (i == 0)
+                    stats.firstMoveCutoffs++;
+                flag = TTEntry.LOWER_BOUND;
+                break;
+            }
+
+            if (score > alpha) {
+                alpha = score;
+                flag = TTEntry.EXACT;
+            }
+        }
+
+        // 置換表に保存
+        if (bestMove != null) {
+            transTable.store(board, color, bestMove, bestScore, depth, flag);
+        }
+
+        return new PVSResult(bestMove, bestScore, bestPV);
+    }
+
+    public long getNodesSearched() {
+        return nodesSearched;
+    }
+
+    public SearchStats getStats() {
+        return stats;
+    }
+}
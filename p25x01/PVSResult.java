@@ -0,0 +1,19 @@
+package p25x01;
+
+import ap25.*;
+import java.util.*;
+
+/**
+ * PVS探索結果
+ */
+class PVSResult {
+    final Move move;
+    final int score;
+    final List<Move> pv;
+
+    public PVSResult(Move move, int score, List<Move> pv) {
+        this.move = move;
+        this.score = score;
+        this.pv = pv;
+    }
+}
@@ -0,0 +1,156 @@
+package p25x01;
+
+import ap25.*;
+import ap25.league.BoardSuite;
+import ap25.league.OfficialBoard;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * 合法手生成の perft ベンチマークと差分チェック
+ *
+ * 初期局面とブロック配置つきの局面から深さNまで全手を展開し、
+ * 葉の数と葉の局面ハッシュの和（順序に依存しない）を数える。パスも1手、
+ * 終局した局面はその深さで葉とする。同じ局面集合を盤面実装ごとに数え、
+ * 葉の数とハッシュが一致しなければ根の子ごとの内訳（divide）を並べて
+ * 食い違う手を示す。深さ1の子をタスクに分けて並列に数え、実装ごとの
+ * ノード/秒を表示する。
+ *
+ * 使い方: java p25x01.Perft [深さ] [局面数] [シード] [スレッド数]
+ */
+public class Perft {
+    static final Map<String, Function<Board, Board>> IMPLEMENTATIONS = new LinkedHashMap<>();
+
+    static {
+        IMPLEMENTATIONS.put("OfficialBoard", b -> b.clone());
+        IMPLEMENTATIONS.put("OurBoard", Perft::toOurBoard);
+    }
+
+    /**
+     * 葉の数・葉のハッシュ和・訪問ノード数
+     */
+    static final class Count {
+        long leaves;
+        long hash;
+        long nodes;
+
+        void add(Count other) {
+            leaves += other.leaves;
+            hash += other.hash;
+            nodes += other.nodes;
+        }
+
+        boolean matches(Count other) {
+            return leaves == other.leaves && hash == other.hash;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int boardNum = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 25;
+        int threads = args.length > 3 ? Integer.parseInt(args[3])
+                : Runtime.getRuntime().availableProcessors();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        boolean ok = true;
+        try {
+            for (OfficialBoard start : BoardSuite.generate(boardNum, seed)) {
+                ok &= run(pool, start, depth);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    static boolean run(ForkJoinPool pool, Board start, int depth) throws Exception {
+        System.out.println(start);
+        Map<String, List<Count>> divides = new LinkedHashMap<>();
+        for (var e : IMPLEMENTATIONS.entrySet()) {
+            Board board = e.getValue().apply(start);
+            long tm = System.nanoTime();
+            List<Count> divide = pool.submit(() -> divide(board, depth)).get();
+            tm = System.nanoTime() - tm;
+
+            Count total = new Count();
+            divide.forEach(total::add);
+            System.out.printf("%-14s depth %d: %,d leaves, hash %016x, %,d nodes, %.0f nodes/s%n",
+                    e.getKey(), depth, total.leaves, total.hash, total.nodes,
+                    total.nodes / Math.max(tm / 1e9, 1e-9));
+            divides.put(e.getKey(), divide);
+        }
+        return compare(start, divides);
+    }
+
+    /**
+     * 根の子ごとの perft（子の間は並列）
+     */
+    static List<Count> divide(Board board, int depth) {
+        List<Move> moves = children(board);
+        return moves.parallelStream()
+                .map(m -> perft(board.placed(m), depth - 1))
+                .toList();
+    }
+
+    static List<Move> children(Board board) {
+        return board.isEnd() ? List.of() : board.findLegalMoves(board.getTurn());
+    }
+
+    static Count perft(Board board, int depth) {
+        Count count = new Count();
+        count.nodes = 1;
+        List<Move> moves;
+        if (depth <= 0 || (moves = children(board)).isEmpty()) {
+            count.leaves = 1;
+            count.hash = Zobrist.hash(board, board.getTurn());
+            return count;
+        }
+        for (Move m : moves) {
+            count.add(perft(board.placed(m), depth - 1));
+        }
+        return count;
+    }
+
+    /**
+     * 実装間で divide を突き合わせ、食い違う子を表示する
+     */
+    static boolean compare(Board start, Map<String, List<Count>> divides) {
+        var it = divides.entrySet().iterator();
+        var reference = it.next();
+        List<Move> moves = children(start);
+        boolean ok = true;
+        while (it.hasNext()) {
+            var other = it.next();
+            List<Count> a = reference.getValue();
+            List<Count> b = other.getValue();
+            if (a.size() != b.size()) {
+                System.out.printf("MISMATCH %s vs %s: %d vs %d root moves%n",
+                        reference.getKey(), other.getKey(), a.size(), b.size());
+                ok = false;
+                continue;
+            }
+            for (int i = 0; i < a.size(); i++) {
+                if (!a.get(i).matches(b.get(i))) {
+                    System.out.printf("MISMATCH %s vs %s after %s: %,d vs %,d leaves%n",
+                            reference.getKey(), other.getKey(), moves.get(i),
+                            a.get(i).leaves, b.get(i).leaves);
+                    ok = false;
+                }
+            }
+        }
+        System.out.println(ok ? "OK" : "FAILED");
+        System.out.println();
+        return ok;
+    }
+
+    static OurBoard toOurBoard(Board board) {
+        OurBoard b = new OurBoard();
+        for (int k = 0; k < Board.LENGTH; k++) {
+            b.set(k, board.get(k));
+        }
+        b.move = board.getMove();
+        return b;
+    }
+}
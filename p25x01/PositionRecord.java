@@ -0,0 +1,117 @@
+package p25x01;
+
+import ap25.*;
+import static ap25.Board.*;
+import static ap25.Color.*;
+import java.nio.ByteBuffer;
+
+/**
+ * 学習用局面レコード（固定長16バイト）
+ *
+ * <pre>
+ *  0- 8  盤面: 1マス2bit（0=空き, 1=黒, 2=白, 3=ブロック）、マス0が最下位
+ *     9  フラグ: bit0=白番, bit1=scoreが完全読みの値
+ *    10  最善手のマス番号（パスは0xFF）
+ * 11-12  探索スコア（手番側から見た値, big endian）
+ *    13  最終石差（黒から見た値, Board.score と同じ定義）
+ *    14  手数
+ *    15  予約（0）
+ * </pre>
+ */
+final class PositionRecord {
+    static final int SIZE_BYTES = 16;
+    static final int FLAG_WHITE_TO_MOVE = 1;
+    static final int FLAG_EXACT = 2;
+    static final int NO_MOVE = 0xFF;
+
+    long black;
+    long white;
+    long blocks;
+    Color turn = BLACK;
+    boolean exact;
+    int move = Move.PASS;
+    int score;
+    int result;
+    int ply;
+
+    static PositionRecord of(Board board, Color turn, int ply) {
+        PositionRecord r = new PositionRecord();
+        r.black = BitBoard.mask(board, BLACK);
+        r.white = BitBoard.mask(board, WHITE);
+        r.blocks = BitBoard.mask(board, BLOCK);
+        r.turn = turn;
+        r.ply = ply;
+        return r;
+    }
+
+    /**
+     * 手番込みのZobristハッシュ（重複除去用）
+     */
+    long hash() {
+        return Zobrist.hash(black, white, blocks, turn);
+    }
+
+    OurBoard toBoard() {
+        OurBoard board = new OurBoard();
+        for (int i = 0; i < LENGTH; i++) {
+            long bit = 1L << i;
+            board.set(i, (black & bit) != 0 ? BLACK
+                    : (white & bit) != 0 ? WHITE
+                    : (blocks & bit) != 0 ? BLOCK : NONE);
+        }
+        // 直前の手を相手のパスにして手番を合わせる
+        return turn == BLACK ? board : board.placed(Move.ofPass(BLACK));
+    }
+
+    int empties() {
+        return LENGTH - Long.bitCount(black | white | blocks);
+    }
+
+    void write(ByteBuffer buf) {
+        long cells = 0;
+        long high = 0;
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            long bit = 1L << i;
+            int code = (black & bit) != 0 ? 1
+                    : (white & bit) != 0 ? 2
+                    : (blocks & bit) != 0 ? 3 : 0;
+            high = (high << 2) | (cells >>> 62);
+            cells = (cells << 2) | code;
+        }
+        buf.putLong(cells);
+        buf.put((byte) high);
+        buf.put((byte) ((turn == WHITE ? FLAG_WHITE_TO_MOVE : 0) | (exact ? FLAG_EXACT : 0)));
+        buf.put((byte) (move < 0 ? NO_MOVE : move));
+        buf.putShort((short) score);
+        buf.put((byte) result);
+        buf.put((byte) ply);
+        buf.put((byte) 0);
+    }
+
+    static PositionRecord read(ByteBuffer buf) {
+        PositionRecord r = new PositionRecord();
+        long cells = buf.getLong();
+        long high = buf.get() & 0xFF;
+        for (int i = 0; i < LENGTH; i++) {
+            int code = (int) (i < 32 ? cells >>> (2 * i) : high >>> (2 * (i - 32))) & 3;
+            long bit = 1L << i;
+            if (code == 1) {
+                r.black |= bit;
+            } else if (code == 2) {
+                r.white |= bit;
+            } else if (code == 3) {
+                r.blocks |= bit;
+            }
+        }
+        int flags = buf.get();
+        r.turn = (flags & FLAG_WHITE_TO_MOVE) != 0 ? WHITE : BLACK;
+        r.exact = (flags & FLAG_EXACT) != 0;
+        int move = buf.get() & 0xFF;
+        r.move = move == NO_MOVE ? Move.PASS : move;
+        r.score = buf.getShort();
+        r.result = buf.get();
+        r.ply = buf.get() & 0xFF;
+        buf.get();
+        return r;
+    }
+}
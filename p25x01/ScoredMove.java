@@ -0,0 +1,16 @@
+package p25x01;
+
+import ap25.*;
+
+/**
+ * スコア付き手
+ */
+class ScoredMove {
+    final Move move;
+    final int score;
+
+    public ScoredMove(Move move, int score) {
+        this.move = move;
+        this.score = score;
+    }
+}
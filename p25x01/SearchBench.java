@@ -0,0 +1,258 @@
+package p25x01;
+
+import ap25.*;
+import ap25.league.BoardSuite;
+import static ap25.Board.*;
+import static ap25.Color.*;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * 固定局面による探索の回帰ベンチマーク
+ *
+ * 局面ファイルの各局面を、時間管理を通さずに PVSEngine の固定深さ探索か
+ * Solver の完全読み（1スレッド）で解き、ノード数・時間・NPS・最善手・評価値を
+ * 表示する。完全読みの評価値は石数差を Evaluator.terminalScore で PVS と
+ * 同じ尺度に直したもの。局面ごとに置換表と評価キャッシュを作り直すので、
+ * ノード数・最善手・評価値は実行のたびに同じになる（変わるのは時間だけ）。
+ * 保存したベースラインを渡すと、局面ごとの増減と結果の食い違いを並べる。
+ *
+ * 局面ファイルは1行1局面で「36マス 手番 モード」。マスは . 空き, o 黒,
+ * x 白, # ブロック、手番は o か x、モードは d深さ か exact。「# 」（#と空白）で
+ * 始まる行はコメント。
+ *
+ * 使い方:
+ *   java p25x01.SearchBench 局面ファイル [ベースライン] [--save=結果ファイル]
+ *   java p25x01.SearchBench --generate=局面ファイル [局面数] [シード]
+ */
+public class SearchBench {
+    static final int MIDGAME_DEPTH = 6;
+    static final int EXACT_EMPTIES = 8;
+    static final int SOLVER_TABLE_BITS = 16;
+
+    /**
+     * ベンチマーク局面
+     */
+    static final class Position {
+        final OurBoard board;
+        final Color turn;
+        final String mode;
+
+        Position(OurBoard board, Color turn, String mode) {
+            this.board = board;
+            this.turn = turn;
+            this.mode = mode;
+        }
+
+        boolean exact() {
+            return mode.equals("exact");
+        }
+
+        int depth() {
+            return exact() ? 0 : Integer.parseInt(mode.substring(1));
+        }
+
+        int empties() {
+            return board.count(NONE);
+        }
+    }
+
+    /**
+     * 1局面の結果（ベースラインファイルの1行と同じ項目）
+     */
+    static final class Result {
+        long nodes;
+        long nanos;
+        String move;
+        int score;
+
+        String format() {
+            return nodes + "\t" + nanos + "\t" + move + "\t" + score;
+        }
+
+        static Result parse(String line) {
+            String[] f = line.split("\t");
+            Result r = new Result();
+            r.nodes = Long.parseLong(f[0]);
+            r.nanos = Long.parseLong(f[1]);
+            r.move = f[2];
+            r.score = Integer.parseInt(f[3]);
+            return r;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> files = new ArrayList<>();
+        Path save = null;
+        Path generate = null;
+        for (String arg : args) {
+            if (arg.startsWith("--generate=")) {
+                generate = Path.of(arg.substring("--generate=".length()));
+            } else if (arg.startsWith("--save=")) {
+                save = Path.of(arg.substring("--save=".length()));
+            } else {
+                files.add(arg);
+            }
+        }
+        if (generate != null) {
+            int count = files.size() > 0 ? Integer.parseInt(files.get(0)) : 100;
+            long seed = files.size() > 1 ? Long.parseLong(files.get(1)) : 25;
+            generate(generate, count, seed);
+            return;
+        }
+        if (files.isEmpty()) {
+            System.err.println("usage: SearchBench positions [baseline] [--save=results]");
+            System.exit(1);
+        }
+
+        List<Position> positions = load(Path.of(files.get(0)));
+        List<Result> baseline = files.size() > 1 ? loadResults(Path.of(files.get(1))) : null;
+        List<Result> results = run(positions, baseline);
+        if (save != null) {
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(save))) {
+                results.forEach(r -> out.println(r.format()));
+            }
+        }
+    }
+
+    static List<Result> run(List<Position> positions, List<Result> baseline) throws IOException {
+        System.out.println("  #|emp| mode|       nodes|      ms|   kN/s|move|score"
+                + (baseline != null ? "| nodes%|   ms%|" : ""));
+        List<Result> results = new ArrayList<>();
+        long nodes = 0, nanos = 0, baseNodes = 0, baseNanos = 0;
+        int changed = 0;
+
+        for (int i = 0; i < positions.size(); i++) {
+            Position p = positions.get(i);
+            Result r = search(p);
+            results.add(r);
+            nodes += r.nodes;
+            nanos += r.nanos;
+
+            StringBuilder line = new StringBuilder(String.format("%3d|%3d|%5s|%12d|%8.1f|%7.1f|%4s|%5d",
+                    i + 1, p.empties(), p.mode, r.nodes, r.nanos / 1e6, knps(r.nodes, r.nanos), r.move, r.score));
+            if (baseline != null && i < baseline.size()) {
+                Result b = baseline.get(i);
+                baseNodes += b.nodes;
+                baseNanos += b.nanos;
+                line.append(String.format("|%+6.1f%%|%+5.0f%%|", percent(r.nodes, b.nodes), percent(r.nanos, b.nanos)));
+                if (!r.move.equals(b.move) || r.score != b.score) {
+                    line.append(String.format(" CHANGED (was %s %d)", b.move, b.score));
+                    changed++;
+                }
+            }
+            System.out.println(line);
+        }
+
+        System.out.printf("total: %d positions, %d nodes, %.1f ms, %.1f kN/s%n",
+                positions.size(), nodes, nanos / 1e6, knps(nodes, nanos));
+        if (baseline != null) {
+            System.out.printf("vs baseline: nodes %+.1f%%, time %+.1f%%, NPS %+.1f%%, %d results changed%n",
+                    percent(nodes, baseNodes), percent(nanos, baseNanos),
+                    percent(knps(nodes, nanos), knps(baseNodes, baseNanos)), changed);
+        }
+        return results;
+    }
+
+    /**
+     * 探索部品を作り直して1局面を解く
+     */
+    static Result search(Position p) throws IOException {
+        Evaluator evaluator = new Evaluator();
+        Result r = new Result();
+        PVSResult result;
+        long start = System.nanoTime();
+        if (p.exact()) {
+            Solver solver = new Solver(new SolverTable(SOLVER_TABLE_BITS, null), 1);
+            result = solver.solveRoot(p.board, p.turn);
+            r.nanos = System.nanoTime() - start;
+            r.nodes = solver.nodes.sum();
+            result = new PVSResult(result.move, Evaluator.terminalScore(result.score), result.pv);
+        } else {
+            PVSEngine engine = new PVSEngine(new TranspositionTable(), evaluator, new MoveOrderer(evaluator));
+            result = engine.searchRoot(p.board, p.turn, p.depth(), new ArrayList<>(), Long.MAX_VALUE);
+            r.nanos = System.nanoTime() - start;
+            r.nodes = engine.getNodesSearched();
+        }
+        r.move = String.valueOf(result.move); // 時間切れのない探索では null にならない
+        r.score = result.score;
+        return r;
+    }
+
+    static double knps(double nodes, double nanos) {
+        return nanos == 0 ? 0 : nodes / (nanos / 1e6);
+    }
+
+    static double percent(double value, double base) {
+        return base == 0 ? 0 : (value / base - 1) * 100;
+    }
+
+    static List<Position> load(Path file) throws IOException {
+        List<Position> positions = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("# ")) {
+                continue;
+            }
+            String[] f = line.split("\\s+");
+            OurBoard board = new OurBoard();
+            for (int k = 0; k < LENGTH; k++) {
+                char c = f[0].charAt(k);
+                board.set(k, c == 'o' ? BLACK : c == 'x' ? WHITE : c == '#' ? BLOCK : NONE);
+            }
+            Color turn = f[1].equals("x") ? WHITE : BLACK;
+            board.move = Move.ofPass(turn.flipped());
+            positions.add(new Position(board, turn, f[2]));
+        }
+        return positions;
+    }
+
+    static List<Result> loadResults(Path file) throws IOException {
+        List<Result> results = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            if (!line.isBlank()) {
+                results.add(Result.parse(line));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * BoardSuite の局面から固定シードのランダム手で進めた局面を書き出す。
+     * 空きが EXACT_EMPTIES 以下なら完全読み、それ以外は固定深さ。
+     * 約3割が終盤になるよう進める手数を選ぶ。
+     */
+    static void generate(Path out, int count, long seed) throws IOException {
+        Random rand = new Random(seed);
+        List<? extends Board> starts = BoardSuite.generate(16, seed);
+        Set<String> seen = new HashSet<>();
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(out))) {
+            w.println("# cells(a1..f6: . empty, o black, x white, # block) turn mode");
+            while (seen.size() < count) {
+                boolean endgame = seen.size() % 10 < 3;
+                Board board = starts.get(rand.nextInt(starts.size()));
+                int target = endgame ? EXACT_EMPTIES - rand.nextInt(3) : 14 + rand.nextInt(12);
+                while (!board.isEnd() && board.count(NONE) > target) {
+                    List<Move> moves = board.findLegalMoves(board.getTurn());
+                    board = board.placed(moves.get(rand.nextInt(moves.size())));
+                }
+                if (board.isEnd() || board.findLegalMoves(board.getTurn()).get(0).isPass()) {
+                    continue;
+                }
+                StringBuilder cells = new StringBuilder();
+                for (int k = 0; k < LENGTH; k++) {
+                    Color c = board.get(k);
+                    cells.append(c == BLACK ? 'o' : c == WHITE ? 'x' : c == BLOCK ? '#' : '.');
+                }
+                String line = cells + " " + (board.getTurn() == WHITE ? "x" : "o") + " "
+                        + (board.count(NONE) <= EXACT_EMPTIES ? "exact" : "d" + MIDGAME_DEPTH);
+                if (seen.add(line)) {
+                    w.println(line);
+                }
+            }
+        }
+    }
+}
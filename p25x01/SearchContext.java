@@ -0,0 +1,56 @@
+package p25x01;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 対局中だけ借りる探索コンポーネント一式（置換表・評価キャッシュと、それを使う探索器）
+ *
+ * 置換表（256Kエントリ）と評価キャッシュは MyPlayer の中で一番大きい。
+ * リーグではプレイヤーを対局ごとに作るので、これを毎回確保すると
+ * メモリとGCの負担がプレイヤー数の2乗で増える。ここでは使い終わった
+ * 一式をプロセス全体のプールに戻して次の対局で使い回し、同時に
+ * 進行している対局の数だけしか確保しないようにする。
+ * プールに戻すときに中身を消すので、前の対局の結果は持ち越さない。
+ */
+final class SearchContext {
+    private static final ConcurrentLinkedDeque<SearchContext> POOL = new ConcurrentLinkedDeque<>();
+    private static final AtomicInteger CREATED = new AtomicInteger();
+
+    final TranspositionTable transTable = new TranspositionTable();
+    final EvalCache evalCache = new EvalCache();
+    final Evaluator evaluator = new Evaluator(evalCache);
+    final MoveOrderer moveOrderer = new MoveOrderer(evaluator);
+    final EndgameSolver endgameSolver = new EndgameSolver(evaluator);
+    final PVSEngine pvsEngine = new PVSEngine(transTable, evaluator, moveOrderer);
+
+    private SearchContext() {
+        CREATED.incrementAndGet();
+    }
+
+    /**
+     * プールから1つ借りる（空なら新しく作る）
+     */
+    static SearchContext acquire() {
+        SearchContext context = POOL.pollFirst();
+        return context != null ? context : new SearchContext();
+    }
+
+    /**
+     * 中身を消してプールに戻す。戻したあとは使わないこと
+     */
+    static void release(SearchContext context) {
+        context.transTable.clear();
+        context.evalCache.clear();
+        context.endgameSolver.clearCache();
+        context.pvsEngine.getStats().reset();
+        POOL.offerFirst(context);
+    }
+
+    /**
+     * これまでに確保した数（同時に使われた数の最大値）
+     */
+    static int created() {
+        return CREATED.get();
+    }
+}
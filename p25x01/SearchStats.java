@@ -0,0 +1,149 @@
+package p25x01;
+
+import java.util.*;
+
+/**
+ * 探索統計
+ *
+ * PVSEngine が探索中に埋める。1回の思考分（newThink から次の newThink まで）
+ * を保持し、add で別の統計を足し込める。toMap は足し算で集計できる
+ * カウンタだけを返すので、リーグ側はプレイヤーごとに合計すればよい。
+ */
+class SearchStats {
+    static final int MAX_DEPTH = 32;
+
+    long thinks;
+    long nodes;
+    long ttProbes;
+    long ttHits;
+    long ttCutoffs;
+    long betaCutoffs;
+    long firstMoveCutoffs;
+    long researches;
+    long iterations;
+    long abortedIterations;
+    int maxDepth;
+
+    // 深さごとのノード数と時間
+    final long[] depthNodes = new long[MAX_DEPTH + 1];
+    final long[] depthNanos = new long[MAX_DEPTH + 1];
+
+    // 実効分岐係数: 連続する反復のノード数比の対数和
+    double branchingLogSum;
+    long branchingSamples;
+
+    // 今回の思考での直前の反復のノード数
+    private long previousIterationNodes;
+
+    void newThink() {
+        thinks++;
+        previousIterationNodes = 0;
+    }
+
+    void iterationDone(int depth, long iterationNodes, long nanos, boolean aborted) {
+        iterations++;
+        if (aborted) {
+            abortedIterations++;
+            return;
+        }
+        if (depth <= MAX_DEPTH) {
+            depthNodes[depth] += iterationNodes;
+            depthNanos[depth] += nanos;
+        }
+        maxDepth = Math.max(maxDepth, depth);
+        if (previousIterationNodes > 0 && iterationNodes > 0) {
+            branchingLogSum += Math.log((double) iterationNodes / previousIterationNodes);
+            branchingSamples++;
+        }
+        previousIterationNodes = iterationNodes;
+    }
+
+    void reset() {
+        thinks = nodes = ttProbes = ttHits = ttCutoffs = 0;
+        betaCutoffs = firstMoveCutoffs = researches = 0;
+        iterations = abortedIterations = 0;
+        maxDepth = 0;
+        Arrays.fill(depthNodes, 0);
+        Arrays.fill(depthNanos, 0);
+        branchingLogSum = 0;
+        branchingSamples = 0;
+        previousIterationNodes = 0;
+    }
+
+    void add(SearchStats other) {
+        thinks += other.thinks;
+        nodes += other.nodes;
+        ttProbes += other.ttProbes;
+        ttHits += other.ttHits;
+        ttCutoffs += other.ttCutoffs;
+        betaCutoffs += other.betaCutoffs;
+        firstMoveCutoffs += other.firstMoveCutoffs;
+        researches += other.researches;
+        iterations += other.iterations;
+        abortedIterations += other.abortedIterations;
+        maxDepth = Math.max(maxDepth, other.maxDepth);
+        for (int d = 0; d <= MAX_DEPTH; d++) {
+            depthNodes[d] += other.depthNodes[d];
+            depthNanos[d] += other.depthNanos[d];
+        }
+        branchingLogSum += other.branchingLogSum;
+        branchingSamples += other.branchingSamples;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public double nodesPerSecond(int depth) {
+        return depthNanos[depth] == 0 ? 0 : depthNodes[depth] * 1e9 / depthNanos[depth];
+    }
+
+    public double ttHitRate() {
+        return ttProbes == 0 ? 0 : (double) ttHits / ttProbes;
+    }
+
+    public double ttCutoffRate() {
+        return ttProbes == 0 ? 0 : (double) ttCutoffs / ttProbes;
+    }
+
+    public double firstMoveCutoffRatio() {
+        return betaCutoffs == 0 ? 0 : (double) firstMoveCutoffs / betaCutoffs;
+    }
+
+    public double effectiveBranchingFactor() {
+        return branchingSamples == 0 ? 0 : Math.exp(branchingLogSum / branchingSamples);
+    }
+
+    /**
+     * 集計用のカウンタ（キー名は League の Result 表示と共通）
+     */
+    public Map<String, Long> toMap() {
+        Map<String, Long> map = new TreeMap<>();
+        map.put("thinks", thinks);
+        map.put("nodes", nodes);
+        map.put("nanos", Arrays.stream(depthNanos).sum());
+        map.put("ttProbes", ttProbes);
+        map.put("ttHits", ttHits);
+        map.put("ttCutoffs", ttCutoffs);
+        map.put("betaCutoffs", betaCutoffs);
+        map.put("firstMoveCutoffs", firstMoveCutoffs);
+        map.put("researches", researches);
+        map.put("iterations", iterations);
+        map.put("abortedIterations", abortedIterations);
+        map.put("branchingLogMillis", Math.round(branchingLogSum * 1000));
+        map.put("branchingSamples", branchingSamples);
+        for (int d = 1; d <= MAX_DEPTH; d++) {
+            if (depthNodes[d] > 0) {
+                map.put("depth" + d + ".nodes", depthNodes[d]);
+                map.put("depth" + d + ".nanos", depthNanos[d]);
+            }
+        }
+        return map;
+    }
+
+    public String toString() {
+        return String.format("nodes=%d tt=%.1f%%/%.1f%% first-cut=%.1f%% ebf=%.2f re-search=%d aborted=%d/%d",
+                nodes, ttHitRate() * 100, ttCutoffRate() * 100, firstMoveCutoffRatio() * 100,
+                effectiveBranchingFactor(), researches, abortedIterations, iterations);
+    }
+}
@@ -0,0 +1,165 @@
+package p25x01;
+
+import ap25.*;
+import static ap25.Color.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 自己対戦による学習データ生成
+ *
+ * ランダムなブロック配置とランダムな序盤手から固定深さのPVS同士で対局し、
+ * 各局面を探索スコア・最善手・最終結果付きの PositionRecord として
+ * バイナリファイルに書き出す。ワーカーはスレッドごとに探索部品と
+ * 書き込みバッファを持ち、バッファが埋まったときだけチャネルに追記する。
+ *
+ * 使い方: java p25x01.SelfPlay 出力ファイル [対局数] [深さ] [ランダム手数] [シード] [スレッド数]
+ */
+public class SelfPlay {
+    static final List<Integer> BLOCK_CANDIDATES = List.of(0, 1, 2, 3, 4, 5, 6, 12, 18, 24, 30);
+    static final int BUFFER_SIZE = 1 << 16;
+    static final long REPORT_INTERVAL_MS = 10000;
+
+    final int games;
+    final int depth;
+    final int randomPlies;
+    final long seed;
+    final int threads;
+
+    final AtomicInteger nextGame = new AtomicInteger();
+    final AtomicLong gamesDone = new AtomicLong();
+    final AtomicLong positions = new AtomicLong();
+
+    SelfPlay(int games, int depth, int randomPlies, long seed, int threads) {
+        this.games = games;
+        this.depth = depth;
+        this.randomPlies = randomPlies;
+        this.seed = seed;
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage: SelfPlay out [games] [depth] [randomPlies] [seed] [threads]");
+            System.exit(1);
+        }
+        Path out = Path.of(args[0]);
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int randomPlies = args.length > 3 ? Integer.parseInt(args[3]) : 6;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+        int threads = args.length > 5 ? Integer.parseInt(args[5])
+                : Runtime.getRuntime().availableProcessors();
+
+        new SelfPlay(games, depth, randomPlies, seed, threads).run(out);
+    }
+
+    void run(Path out) throws Exception {
+        long start = System.currentTimeMillis();
+        try (FileChannel channel = FileChannel.open(out, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                workers.add(pool.submit(() -> {
+                    work(channel);
+                    return null;
+                }));
+            }
+            pool.shutdown();
+
+            while (!pool.awaitTermination(REPORT_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                report(start);
+            }
+            for (Future<?> f : workers) {
+                f.get();
+            }
+        }
+        report(start);
+    }
+
+    void report(long start) {
+        double sec = Math.max(1, System.currentTimeMillis() - start) / 1000.0;
+        System.err.printf("[SelfPlay] 対局 %d/%d | 局面 %d | %.0f 局面/時\n",
+                gamesDone.get(), games, positions.get(), positions.get() / sec * 3600);
+    }
+
+    /**
+     * ワーカー: 対局番号を取り出しては1局打ち、レコードをバッファに溜める
+     */
+    void work(FileChannel channel) throws IOException {
+        Evaluator evaluator = new Evaluator();
+        TranspositionTable tt = new TranspositionTable();
+        PVSEngine engine = new PVSEngine(tt, evaluator, new MoveOrderer(evaluator));
+        ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        int game;
+        while ((game = nextGame.getAndIncrement()) < games) {
+            tt.clear(); // 対局の結果がスレッドへの割り振り順に左右されないように
+            List<PositionRecord> records = playGame(engine, new Random(seed + game));
+            if (buf.remaining() < records.size() * PositionRecord.SIZE_BYTES) {
+                flush(channel, buf);
+            }
+            records.forEach(r -> r.write(buf));
+            gamesDone.incrementAndGet();
+            positions.addAndGet(records.size());
+        }
+        flush(channel, buf);
+    }
+
+    List<PositionRecord> playGame(PVSEngine engine, Random rand) {
+        OurBoard board = randomBlocks(rand);
+        Color turn = BLACK;
+        List<PositionRecord> records = new ArrayList<>();
+
+        for (int ply = 0; !board.isEnd(); ply++) {
+            List<Move> moves = board.findLegalMoves(turn);
+            Move move;
+            if (ply < randomPlies) {
+                move = moves.get(rand.nextInt(moves.size()));
+            } else if (moves.get(0).isPass()) {
+                move = moves.get(0);
+            } else {
+                PVSResult result = engine.searchRoot(board, turn, depth, new ArrayList<>(), Long.MAX_VALUE);
+                move = result.move;
+                PositionRecord record = PositionRecord.of(board, turn, ply);
+                record.move = move.getIndex();
+                record.score = result.score;
+                records.add(record);
+            }
+            board = board.placed(move);
+            turn = turn.flipped();
+        }
+
+        int result = board.score();
+        records.forEach(r -> r.result = result);
+        return records;
+    }
+
+    static OurBoard randomBlocks(Random rand) {
+        List<Integer> xs = new ArrayList<>(BLOCK_CANDIDATES);
+        Collections.shuffle(xs, rand);
+        OurBoard board = new OurBoard();
+        for (int x : xs.subList(0, rand.nextInt(4))) {
+            board.set(x, BLOCK);
+        }
+        return board;
+    }
+
+    static void flush(FileChannel channel, ByteBuffer buf) throws IOException {
+        buf.flip();
+        synchronized (channel) {
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+        }
+        buf.clear();
+    }
+}
@@ -0,0 +1,533 @@
+package p25x01;
+
+import ap25.*;
+import ap25.league.BoardSuite;
+import static ap25.Board.*;
+import static ap25.Color.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 6x6（ブロックつき）盤の完全解析
+ *
+ * 指定したブロック配置の初期局面（--moves で途中局面も可）から終局まで
+ * 読み切り、ゲーム値（公式ルールの石数差。全滅なら空きとブロックも
+ * 勝者に加える）と最善手順を求める。盤はビットボードで持ち、
+ * 探索はnull window を使わない fail-soft の alpha-beta。
+ *
+ * 並列化は Young Brothers Wait: 空きが SPLIT_EMPTIES 以上の節点では
+ * 長男を先に読んで窓を狭め、残りの兄弟を ForkJoinPool のタスクとして
+ * 同時に読む。兄弟のどれかでカットが起きたら残りのタスクを止める。
+ * 全スレッドは SolverTable（ロックなしの共有置換表）を使い、--table で
+ * ファイルにマップすれば表はディスクに逃がせて、--checkpoint 秒ごとに
+ * 書き戻す。同じファイルで再実行すると証明済みの部分木は表から返るので、
+ * 中断したところから続けられる。
+ *
+ * --book を指定すると、最善手順上の局面を正確な値（深さ EXACT_DEPTH）
+ * として定石ファイルに書き足す（既存のエントリは上書き）。
+ *
+ * 使い方:
+ *   java p25x01.Solver [--layout=N] [--seed=S] [--moves=c4e3...] [--threads=T]
+ *       [--table=ファイル] [--table-bits=B] [--checkpoint=秒] [--all-moves] [--book=定石ファイル]
+ */
+public class Solver {
+    static final int INF = 64;
+    static final int TABLE_EMPTIES = 6; // これ以上空きのある局面だけ置換表に入れる
+    static final int SPLIT_EMPTIES = 14; // これ以上空きのある局面で兄弟を並列に読む
+    static final int ORDER_EMPTIES = 8; // これ以上空きのある局面で相手の着手可能数順に並べる
+    static final int ABORTED = Integer.MIN_VALUE;
+
+    final SolverTable table;
+    final LongAdder nodes = new LongAdder();
+    final int parallelism;
+
+    Solver(SolverTable table, int parallelism) {
+        this.table = table;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * 兄弟が打ち切りを決めたときに探索を巻き戻す
+     */
+    static final class Aborted extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Aborted() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * 並列に読む兄弟1つ分のタスク
+     */
+    final class Split extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        final long own, opp, empty;
+        final int alpha, beta;
+        final Split parent;
+        volatile boolean stopped;
+
+        Split(long own, long opp, long empty, int alpha, int beta, Split parent) {
+            this.own = own;
+            this.opp = opp;
+            this.empty = empty;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.parent = parent;
+        }
+
+        boolean isStopped() {
+            for (Split s = this; s != null; s = s.parent) {
+                if (s.stopped) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        protected Integer compute() {
+            Searcher s = new Searcher(this);
+            try {
+                return s.solve(own, opp, empty, alpha, beta);
+            } catch (Aborted e) {
+                return ABORTED;
+            } finally {
+                nodes.add(s.nodes);
+            }
+        }
+    }
+
+    /**
+     * 1スレッド分の探索（ノード数を数え、所属タスクの中断を見る）
+     */
+    final class Searcher {
+        final Split task;
+        long nodes;
+
+        Searcher(Split task) {
+            this.task = task;
+        }
+
+        void checkAborted() {
+            if (task != null && task.isStopped()) {
+                throw new Aborted();
+            }
+        }
+
+        int solve(long own, long opp, long empty, int alpha, int beta) {
+            if ((++nodes & 0xFFF) == 0) {
+                checkAborted();
+                Solver.this.nodes.add(nodes);
+                nodes = 0;
+            }
+            if (empty == 0) {
+                return finalScore(own, opp);
+            }
+            long moves = BitBoard.legalMoves(own, opp, empty);
+            if (moves == 0) {
+                if (BitBoard.legalMoves(opp, own, empty) == 0) {
+                    return finalScore(own, opp);
+                }
+                return -solve(opp, own, empty, -beta, -alpha);
+            }
+
+            int empties = Long.bitCount(empty);
+            long hash = 0;
+            long data = 0;
+            int ttMove = -1;
+            if (empties >= TABLE_EMPTIES) {
+                hash = hash(own, opp, empty);
+                data = table.probe(hash);
+                if (data != 0) {
+                    int lower = SolverTable.lower(data);
+                    int upper = SolverTable.upper(data);
+                    if (lower >= beta || lower == upper) {
+                        return lower;
+                    }
+                    if (upper <= alpha) {
+                        return upper;
+                    }
+                    ttMove = SolverTable.move(data);
+                }
+            }
+
+            int[] order = order(own, opp, empty, moves, ttMove, empties);
+            int a = alpha;
+            int best = -INF;
+            int bestMove = -1;
+            int first = 0;
+
+            if (empties >= SPLIT_EMPTIES && parallelism > 1 && order.length > 1) {
+                // 長男だけ先に読み、残りの兄弟は並列に読む
+                int v = child(own, opp, empty, order[0], -beta, -a);
+                best = v;
+                bestMove = order[0];
+                a = Math.max(a, v);
+                if (a < beta) {
+                    List<Split> splits = new ArrayList<>();
+                    for (int i = 1; i < order.length; i++) {
+                        int k = order[i];
+                        long flips = BitBoard.flips(own, opp, k);
+                        Split s = new Split(opp & ~flips, own | flips | (1L << k), empty & ~(1L << k), -beta, -a, task);
+                        splits.add(s);
+                        s.fork();
+                    }
+                    for (int i = 0; i < splits.size(); i++) {
+                        int r = splits.get(i).join();
+                        if (r == ABORTED) {
+                            checkAborted();
+                            throw new IllegalStateException("sibling aborted without a cutoff");
+                        }
+                        if (-r > best) {
+                            best = -r;
+                            bestMove = order[i + 1];
+                        }
+                        if (best >= beta) {
+                            for (int j = i + 1; j < splits.size(); j++) {
+                                splits.get(j).stopped = true;
+                            }
+                            break;
+                        }
+                    }
+                }
+                first = order.length;
+            }
+
+            for (int i = first; i < order.length; i++) {
+                int v = child(own, opp, empty, order[i], -beta, -a);
+                if (v > best) {
+                    best = v;
+                    bestMove = order[i];
+                }
+                a = Math.max(a, v);
+                if (a >= beta) {
+                    break;
+                }
+            }
+
+            if (hash != 0) {
+                checkAborted();
+                int lower = best >= beta ? best : best > alpha ? best : -INF;
+                int upper = best <= alpha ? best : best < beta ? best : INF;
+                if (data != 0) {
+                    lower = Math.max(lower, SolverTable.lower(data));
+                    upper = Math.min(upper, SolverTable.upper(data));
+                }
+                table.store(hash, SolverTable.pack(lower, upper, bestMove, empties));
+            }
+            return best;
+        }
+
+        int child(long own, long opp, long empty, int k, int alpha, int beta) {
+            long flips = BitBoard.flips(own, opp, k);
+            return -solve(opp & ~flips, own | flips | (1L << k), empty & ~(1L << k), alpha, beta);
+        }
+    }
+
+    /**
+     * 置換表の手を先頭に、残りは相手の着手可能数の少ない順（空きが少なければ盤の順）
+     */
+    static int[] order(long own, long opp, long empty, long moves, int ttMove, int empties) {
+        int[] order = new int[Long.bitCount(moves)];
+        int[] keys = new int[order.length];
+        int n = 0;
+        for (long m = moves; m != 0; m &= m - 1) {
+            int k = Long.numberOfTrailingZeros(m);
+            int key = 0;
+            if (k == ttMove) {
+                key = -1;
+            } else if (empties >= ORDER_EMPTIES) {
+                long flips = BitBoard.flips(own, opp, k);
+                long e = empty & ~(1L << k);
+                key = Long.bitCount(BitBoard.legalMoves(opp & ~flips, own | flips | (1L << k), e));
+            }
+            int i = n++;
+            while (i > 0 && keys[i - 1] > key) {
+                keys[i] = keys[i - 1];
+                order[i] = order[i - 1];
+                i--;
+            }
+            keys[i] = key;
+            order[i] = k;
+        }
+        return order;
+    }
+
+    /**
+     * 終局の石数差（手番側から見た値）。全滅なら空きとブロックも勝者のもの
+     */
+    static int finalScore(long own, long opp) {
+        int o = Long.bitCount(own);
+        int p = Long.bitCount(opp);
+        int diff = o - p;
+        if (o == 0 || p == 0) {
+            diff += Integer.signum(diff) * (LENGTH - o - p);
+        }
+        return diff;
+    }
+
+    static long hash(long own, long opp, long empty) {
+        return mix(mix(mix(own) ^ opp) ^ empty);
+    }
+
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 窓 [alpha, beta] で読む（値が窓の外なら fail-soft の境界値）
+     */
+    int solve(ForkJoinPool pool, long own, long opp, long empty, int alpha, int beta) {
+        return pool.invoke(new Split(own, opp, empty, alpha, beta, null));
+    }
+
+    /**
+     * 1スレッドでルートの全合法手を読み切り、最善手と値（手番側から見た
+     * 石数差）を返す。打てなければパス。Labeler が使う
+     */
+    PVSResult solveRoot(Board board, Color turn) {
+        long own = BitBoard.mask(board, turn);
+        long opp = BitBoard.mask(board, turn.flipped());
+        long empty = BitBoard.mask(board, NONE);
+        Searcher s = new Searcher(null);
+        try {
+            Move bestMove = Move.ofPass(turn);
+            long moves = BitBoard.legalMoves(own, opp, empty);
+            if (moves == 0) {
+                return new PVSResult(bestMove, s.solve(own, opp, empty, -INF, INF), List.of(bestMove));
+            }
+            int best = -INF;
+            for (long m = moves; m != 0; m &= m - 1) {
+                int k = Long.numberOfTrailingZeros(m);
+                int v = s.child(own, opp, empty, k, -INF, -best);
+                if (v > best || bestMove.isPass()) {
+                    best = v;
+                    bestMove = new Move(k, turn);
+                }
+            }
+            return new PVSResult(bestMove, best, List.of(bestMove));
+        } finally {
+            nodes.add(s.nodes);
+        }
+    }
+
+    /**
+     * 値がわかっている局面から最善手順をたどる。パスは Move.PASS
+     */
+    List<Integer> line(ForkJoinPool pool, long own, long opp, long empty, int value) {
+        List<Integer> line = new ArrayList<>();
+        while (true) {
+            long moves = BitBoard.legalMoves(own, opp, empty);
+            if (moves == 0) {
+                if (BitBoard.legalMoves(opp, own, empty) == 0) {
+                    return line;
+                }
+                line.add(Move.PASS);
+                long t = own;
+                own = opp;
+                opp = t;
+                value = -value;
+                continue;
+            }
+            long data = table.probe(hash(own, opp, empty));
+            int found = -1;
+            for (int k : order(own, opp, empty, moves, data != 0 ? SolverTable.move(data) : -1, 0)) {
+                long flips = BitBoard.flips(own, opp, k);
+                long o = opp & ~flips, p = own | flips | (1L << k), e = empty & ~(1L << k);
+                if (-solve(pool, o, p, e, -value - 1, -value + 1) == value) {
+                    found = k;
+                    own = o;
+                    opp = p;
+                    empty = e;
+                    value = -value;
+                    break;
+                }
+            }
+            if (found < 0) {
+                throw new IllegalStateException("no move reaches value " + value);
+            }
+            line.add(found);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int layout = 0;
+        long seed = 25;
+        String moves = "";
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path tableFile = null;
+        int tableBits = 22;
+        long checkpoint = 600;
+        boolean allMoves = false;
+        Path bookFile = null;
+        for (String arg : args) {
+            String v = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--layout=")) layout = Integer.parseInt(v);
+            else if (arg.startsWith("--seed=")) seed = Long.parseLong(v);
+            else if (arg.startsWith("--moves=")) moves = v;
+            else if (arg.startsWith("--threads=")) threads = Integer.parseInt(v);
+            else if (arg.startsWith("--table=")) tableFile = Path.of(v);
+            else if (arg.startsWith("--table-bits=")) tableBits = Integer.parseInt(v);
+            else if (arg.startsWith("--checkpoint=")) checkpoint = Long.parseLong(v);
+            else if (arg.equals("--all-moves")) allMoves = true;
+            else if (arg.startsWith("--book=")) bookFile = Path.of(v);
+            else {
+                System.err.println("unknown option: " + arg);
+                System.exit(1);
+            }
+        }
+
+        List<? extends Board> layouts = BoardSuite.generate(layout + 1, seed);
+        if (layout < 0 || layout >= layouts.size()) {
+            System.err.printf("no layout %d: seed %d gives %d layouts%n", layout, seed, layouts.size());
+            System.exit(1);
+        }
+        if (moves.length() % 2 != 0) {
+            System.err.println("--moves must be 2-character squares (.. for pass): " + moves);
+            System.exit(1);
+        }
+        Board board = layouts.get(layout);
+        for (int i = 0; i < moves.length(); i += 2) {
+            String m = moves.substring(i, i + 2);
+            Color turn = board.getTurn();
+            Move move = m.equals("..") ? Move.ofPass(turn) : new Move(Move.parseIndex(m), turn);
+            if (!board.isLegal(move)) {
+                System.err.printf("illegal move %s for %s at ply %d%n", m, turn, i / 2 + 1);
+                System.exit(1);
+            }
+            board = board.placed(move);
+        }
+        Color turn = board.getTurn();
+        System.out.println(board);
+
+        SolverTable table = new SolverTable(tableBits, tableFile);
+        Solver solver = new Solver(table, threads);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        ScheduledExecutorService saver = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        long start = System.currentTimeMillis();
+        if (checkpoint > 0) {
+            saver.scheduleAtFixedRate(() -> solver.checkpoint(start), checkpoint, checkpoint, TimeUnit.SECONDS);
+        }
+
+        try {
+            long own = BitBoard.mask(board, turn);
+            long opp = BitBoard.mask(board, turn.flipped());
+            long empty = BitBoard.mask(board, NONE);
+            int value = solver.solve(pool, own, opp, empty, -INF, INF);
+            List<Integer> line = solver.line(pool, own, opp, empty, value);
+            System.out.printf("value %+d for %s: %s%n", value, turn, format(line));
+
+            Map<Integer, Integer> values = new LinkedHashMap<>();
+            Map<Integer, List<Integer>> lines = new LinkedHashMap<>();
+            if (!line.isEmpty()) {
+                values.put(line.get(0), value);
+                lines.put(line.get(0), line);
+            }
+            if (allMoves) {
+                for (long m = BitBoard.legalMoves(own, opp, empty); m != 0; m &= m - 1) {
+                    int k = Long.numberOfTrailingZeros(m);
+                    if (values.containsKey(k)) {
+                        continue;
+                    }
+                    long flips = BitBoard.flips(own, opp, k);
+                    long o = opp & ~flips, p = own | flips | (1L << k), e = empty & ~(1L << k);
+                    int v = -solver.solve(pool, o, p, e, -INF, INF);
+                    List<Integer> l = new ArrayList<>(List.of(k));
+                    l.addAll(solver.line(pool, o, p, e, -v));
+                    values.put(k, v);
+                    lines.put(k, l);
+                    System.out.printf("  %s %+d: %s%n", Move.toIndexString(k), v, format(l));
+                }
+            }
+            solver.checkpoint(start);
+
+            if (bookFile != null) {
+                SortedMap<Long, Integer> entries = Files.exists(bookFile)
+                        ? OpeningBook.load(bookFile).entries() : new TreeMap<>();
+                int before = entries.size();
+                for (List<Integer> l : lines.values()) {
+                    addLine(entries, own, opp, empty, turn, values.get(l.get(0)), l, l != line);
+                }
+                OpeningBook.save(bookFile, entries);
+                System.out.printf("%s: %d entries (%d new)%n", bookFile, entries.size(), entries.size() - before);
+            }
+        } finally {
+            saver.shutdownNow();
+            pool.shutdown();
+            table.close();
+        }
+    }
+
+    /**
+     * 手順上の各局面に最善手と正確な値を定石として書き込む。
+     * value は手順の先頭の局面の手番側から見た値。ルートの次善手から
+     * 始まる手順では、ルート自身は書かない（skipRoot）
+     */
+    static void addLine(SortedMap<Long, Integer> entries, long own, long opp, long empty,
+            Color turn, int value, List<Integer> line, boolean skipRoot) {
+        boolean root = true;
+        for (int k : line) {
+            if (k != Move.PASS) {
+                if (!(root && skipRoot)) {
+                    OpeningBook.Canonical c = OpeningBook.canonical(toBoard(own, opp, empty, turn), turn);
+                    entries.put(c.key, OpeningBook.pack(OpeningBook.SYMMETRIES[c.symmetry][k],
+                            OpeningBook.EXACT_DEPTH, Evaluator.terminalScore(value)));
+                }
+                long flips = BitBoard.flips(own, opp, k);
+                long o = opp & ~flips;
+                opp = own | flips | (1L << k);
+                own = o;
+                empty &= ~(1L << k);
+            } else {
+                long t = own;
+                own = opp;
+                opp = t;
+            }
+            turn = turn.flipped();
+            value = -value;
+            root = false;
+        }
+    }
+
+    static OurBoard toBoard(long own, long opp, long empty, Color turn) {
+        OurBoard board = new OurBoard();
+        for (int k = 0; k < LENGTH; k++) {
+            long bit = 1L << k;
+            board.set(k, (own & bit) != 0 ? turn : (opp & bit) != 0 ? turn.flipped()
+                    : (empty & bit) != 0 ? NONE : BLOCK);
+        }
+        board.move = Move.ofPass(turn.flipped());
+        return board;
+    }
+
+    static String format(List<Integer> line) {
+        StringBuilder buf = new StringBuilder();
+        for (int k : line) {
+            buf.append(Move.toIndexString(k));
+        }
+        return buf.toString();
+    }
+
+    /**
+     * 進み具合を表示し、置換表をディスクへ書き戻す
+     */
+    void checkpoint(long start) {
+        table.flush();
+        double sec = Math.max(1, System.currentTimeMillis() - start) / 1000.0;
+        long n = nodes.sum();
+        System.out.printf("[checkpoint] %.0fs, %,d nodes, %.0f kN/s, table %.1f%% used%n",
+                sec, n, n / sec / 1000, table.fill(1 << 16) * 100);
+    }
+}
@@ -0,0 +1,171 @@
+package p25x01;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Solver の共有置換表
+ *
+ * 1スロット16バイト（キー語・データ語）の直接マップ表で、全スレッドが
+ * ロックなしで共有する。キー語には「ハッシュ XOR データ語」を入れ、
+ * 読んだ2語の XOR がハッシュに戻るときだけ有効とみなすので、書き込みが
+ * 競合して2語が食い違っても壊れたエントリは使われない。
+ *
+ * ファイルを指定すると表をそのファイルにマップする。表がメモリより
+ * 大きければOSがページをディスクへ逃がし、flush() で書き戻した内容は
+ * 次回の起動でそのまま使える（解析の途中再開）。ファイルの先頭16バイトは
+ * "AP25SOLV" とスロット数で、スロット数が違えば作り直す。
+ *
+ * データ語: 下限+64 (8bit) | 上限+64 (8bit) | 最善手+1 (8bit) | 空き数 (8bit) | 1 (有効ビット)
+ */
+final class SolverTable {
+    static final byte[] MAGIC = "AP25SOLV".getBytes(StandardCharsets.US_ASCII);
+    static final int HEADER = 16;
+    static final int SLOT = 16;
+    static final long SEGMENT_BYTES = 1L << 30;
+    static final long VALID = 1L << 32;
+
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final ByteBuffer[] segments;
+    private final long slots;
+    private final long mask;
+    private final FileChannel channel;
+
+    /**
+     * 2^bits スロットの表。file が null ならメモリ上（直接バッファ）に作る
+     */
+    SolverTable(int bits, Path file) throws IOException {
+        this.slots = 1L << bits;
+        this.mask = slots - 1;
+        long bytes = slots * SLOT;
+        int n = (int) ((bytes + SEGMENT_BYTES - 1) / SEGMENT_BYTES);
+        this.segments = new ByteBuffer[n];
+
+        if (file == null) {
+            this.channel = null;
+            for (int i = 0; i < n; i++) {
+                segments[i] = ByteBuffer.allocateDirect((int) Math.min(SEGMENT_BYTES, bytes - i * SEGMENT_BYTES))
+                        .order(ByteOrder.nativeOrder());
+            }
+            return;
+        }
+
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean reuse = channel.size() == HEADER + bytes && headerMatches();
+        if (!reuse) {
+            channel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(HEADER).put(MAGIC).putLong(slots).flip();
+            channel.write(header, 0);
+        }
+        for (int i = 0; i < n; i++) {
+            long size = Math.min(SEGMENT_BYTES, bytes - i * SEGMENT_BYTES);
+            MappedByteBuffer b = channel.map(FileChannel.MapMode.READ_WRITE, HEADER + i * SEGMENT_BYTES, size);
+            segments[i] = b.order(ByteOrder.nativeOrder());
+        }
+    }
+
+    private boolean headerMatches() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        channel.read(header, 0);
+        byte[] magic = Arrays.copyOf(header.array(), MAGIC.length);
+        return Arrays.equals(magic, MAGIC) && header.getLong(MAGIC.length) == slots;
+    }
+
+    static long pack(int lower, int upper, int move, int empties) {
+        return (long) (lower + 64) | (long) (upper + 64) << 8 | (long) (move + 1) << 16
+                | (long) empties << 24 | VALID;
+    }
+
+    static int lower(long data) {
+        return (int) (data & 0xFF) - 64;
+    }
+
+    static int upper(long data) {
+        return (int) ((data >>> 8) & 0xFF) - 64;
+    }
+
+    static int move(long data) {
+        return (int) ((data >>> 16) & 0xFF) - 1;
+    }
+
+    static int empties(long data) {
+        return (int) ((data >>> 24) & 0xFF);
+    }
+
+    /**
+     * ハッシュに一致するデータ語。無ければ 0
+     */
+    long probe(long hash) {
+        long slot = hash & mask;
+        ByteBuffer b = segments[(int) (slot * SLOT / SEGMENT_BYTES)];
+        int offset = (int) (slot * SLOT % SEGMENT_BYTES);
+        long key = (long) LONGS.getOpaque(b, offset);
+        long data = (long) LONGS.getOpaque(b, offset + 8);
+        return (key ^ data) == hash && (data & VALID) != 0 ? data : 0;
+    }
+
+    /**
+     * 空き数の多い（読みの深い）エントリを優先して書き込む
+     */
+    void store(long hash, long data) {
+        long slot = hash & mask;
+        ByteBuffer b = segments[(int) (slot * SLOT / SEGMENT_BYTES)];
+        int offset = (int) (slot * SLOT % SEGMENT_BYTES);
+        long oldKey = (long) LONGS.getOpaque(b, offset);
+        long oldData = (long) LONGS.getOpaque(b, offset + 8);
+        if ((oldData & VALID) != 0 && (oldKey ^ oldData) != hash && empties(oldData) > empties(data)) {
+            return;
+        }
+        LONGS.setOpaque(b, offset + 8, data);
+        LONGS.setOpaque(b, offset, hash ^ data);
+    }
+
+    long size() {
+        return slots;
+    }
+
+    /**
+     * 使われているスロットの割合（先頭から最大 samples スロットを数える）
+     */
+    double fill(int samples) {
+        long n = Math.min(samples, slots);
+        long used = 0;
+        for (long i = 0; i < n; i++) {
+            long slot = i * (slots / n);
+            ByteBuffer b = segments[(int) (slot * SLOT / SEGMENT_BYTES)];
+            long data = (long) LONGS.getOpaque(b, (int) (slot * SLOT % SEGMENT_BYTES) + 8);
+            used += (data & VALID) != 0 ? 1 : 0;
+        }
+        return (double) used / n;
+    }
+
+    /**
+     * ファイルにマップしていればディスクへ書き戻す（チェックポイント）
+     */
+    void flush() {
+        for (ByteBuffer b : segments) {
+            if (b instanceof MappedByteBuffer m) {
+                m.force();
+            }
+        }
+    }
+
+    void close() throws IOException {
+        flush();
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package p25x01;
+
+import ap25.*;
+import static ap25.Board.*;
+import static ap25.Color.*;
+import java.util.*;
+
+/**
+ * 確定石の計算
+ *
+ * 1. 辺: 各辺6マスの全配置（空き/黒/白/ブロックの4^6通り）について、
+ *    以後どこにどちらの石が置かれても返らない石を事前計算した表を引く。
+ *    辺の石は辺の方向にしか挟まれないので、この表で辺は厳密に求まる。
+ * 2. 内部: 4つの軸それぞれについて「その軸の列が埋まっている」か
+ *    「片側の隣が盤外・ブロック・自分の確定石」なら返らないので、
+ *    辺の確定石を種にしてビットボードで不動点まで伝播させる。
+ *
+ * ブロックは置けず返らないので、盤外と同じ壁として扱う。
+ */
+final class Stability {
+    private static final int EMPTY = 0;
+    private static final int BLOCK_CODE = 3;
+
+    // 辺のマス（添字の小さい順）
+    private static final int[][] EDGE_SQUARES = new int[4][SIZE];
+    // 辺の配置（4進数）→ 確定している石の位置（6bit）
+    private static final byte[] EDGE_TABLE = new byte[1 << (2 * SIZE)];
+    // 軸ごとの列（行・列・2方向の斜め）
+    private static final long[][] LINES = new long[4][];
+    // 軸に対応する方向の組（Move.offsets の番号）
+    private static final int[][] AXES = { { 0, 4 }, { 2, 6 }, { 3, 7 }, { 1, 5 } };
+    // 軸ごとに片側が盤外になるマス
+    private static final long[] BORDERS = {
+            BitBoard.COL_A | BitBoard.COL_F,
+            BitBoard.ROW_1 | BitBoard.ROW_6,
+            BitBoard.EDGES,
+            BitBoard.EDGES };
+
+    static {
+        for (int i = 0; i < SIZE; i++) {
+            EDGE_SQUARES[0][i] = i;
+            EDGE_SQUARES[1][i] = SIZE * (SIZE - 1) + i;
+            EDGE_SQUARES[2][i] = SIZE * i;
+            EDGE_SQUARES[3][i] = SIZE * i + SIZE - 1;
+        }
+
+        boolean[] done = new boolean[EDGE_TABLE.length];
+        for (int index = 0; index < EDGE_TABLE.length; index++) {
+            edgeStable(index, done);
+        }
+
+        for (int axis = 0; axis < 4; axis++) {
+            LINES[axis] = lines(AXES[axis][1]);
+        }
+    }
+
+    private Stability() {
+    }
+
+    /**
+     * ownの確定石の集合
+     */
+    static long stable(long own, long opp, long blocks) {
+        long empty = BitBoard.ALL & ~(own | opp | blocks);
+
+        long[] ok = new long[4];
+        for (int axis = 0; axis < 4; axis++) {
+            long full = 0;
+            for (long line : LINES[axis]) {
+                if ((line & empty) == 0) {
+                    full |= line;
+                }
+            }
+            ok[axis] = full | BORDERS[axis];
+        }
+
+        long stable = edgeStable(own, opp, blocks) & own;
+        while (true) {
+            long anchor = stable | blocks;
+            long candidates = own;
+            for (int axis = 0; axis < 4; axis++) {
+                candidates &= ok[axis]
+                        | BitBoard.shift(anchor, AXES[axis][0])
+                        | BitBoard.shift(anchor, AXES[axis][1]);
+            }
+            long next = stable | candidates;
+            if (next == stable) {
+                return stable;
+            }
+            stable = next;
+        }
+    }
+
+    /**
+     * colorから見た確定石数の差
+     */
+    static int stableDiff(Board board, Color color) {
+        long own = BitBoard.mask(board, color);
+        long opp = BitBoard.mask(board, color.flipped());
+        long blocks = BitBoard.mask(board, BLOCK);
+        return Long.bitCount(stable(own, opp, blocks)) - Long.bitCount(stable(opp, own, blocks));
+    }
+
+    /**
+     * colorが最終的に得られる石数差の上限
+     *
+     * 相手の確定石は最後まで相手のものなので、残りのマスを全部取っても
+     * 差は (置けるマス数 - 2 * 相手の確定石数) を超えない。全滅勝ちで
+     * 空きマスが勝者に加算される場合もこの値に収まる。
+     */
+    static int maxDiscDiff(Board board, Color color) {
+        long own = BitBoard.mask(board, color);
+        long opp = BitBoard.mask(board, color.flipped());
+        long blocks = BitBoard.mask(board, BLOCK);
+        int playable = LENGTH - Long.bitCount(blocks);
+        return playable - 2 * Long.bitCount(stable(opp, own, blocks));
+    }
+
+    /**
+     * 4辺について表を引き、辺の確定石（両色）を返す
+     */
+    private static long edgeStable(long black, long white, long blocks) {
+        long result = 0;
+        for (int[] squares : EDGE_SQUARES) {
+            int index = 0;
+            for (int i = SIZE - 1; i >= 0; i--) {
+                long bit = 1L << squares[i];
+                int code = (black & bit) != 0 ? 1
+                        : (white & bit) != 0 ? 2
+                        : (blocks & bit) != 0 ? BLOCK_CODE : EMPTY;
+                index = index * 4 + code;
+            }
+            int stable = EDGE_TABLE[index];
+            for (int i = 0; i < SIZE; i++) {
+                if ((stable & (1 << i)) != 0) {
+                    result |= 1L << squares[i];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 辺の配置indexの確定石を再帰的に求める
+     *
+     * 空きマスのどこにどちらの石を置いても（合法性は問わない）
+     * 色が変わらない石だけを残す。置くたびに空きが減るので停止する。
+     */
+    private static int edgeStable(int index, boolean[] done) {
+        if (done[index]) {
+            return EDGE_TABLE[index];
+        }
+
+        int[] cells = new int[SIZE];
+        int discs = 0;
+        for (int i = 0; i < SIZE; i++) {
+            cells[i] = (index >> (2 * i)) & 3;
+            if (cells[i] == 1 || cells[i] == 2) {
+                discs |= 1 << i;
+            }
+        }
+
+        int stable = discs;
+        for (int i = 0; i < SIZE && stable != 0; i++) {
+            if (cells[i] != EMPTY) {
+                continue;
+            }
+            for (int color = 1; color <= 2; color++) {
+                int[] next = cells.clone();
+                next[i] = color;
+                int flipped = flip(next, i, -1) | flip(next, i, 1);
+                int nextIndex = 0;
+                for (int j = SIZE - 1; j >= 0; j--) {
+                    nextIndex = nextIndex * 4 + next[j];
+                }
+                stable &= edgeStable(nextIndex, done) & ~flipped;
+            }
+        }
+
+        EDGE_TABLE[index] = (byte) stable;
+        done[index] = true;
+        return stable;
+    }
+
+    /**
+     * 1次元の列で、iに置いた石がstep方向に挟む石を返して裏返す
+     */
+    private static int flip(int[] cells, int i, int step) {
+        int color = cells[i];
+        int opponent = 3 - color;
+        int flipped = 0;
+        int j = i + step;
+        while (0 <= j && j < SIZE && cells[j] == opponent) {
+            flipped |= 1 << j;
+            j += step;
+        }
+        if (flipped == 0 || j < 0 || j >= SIZE || cells[j] != color) {
+            return 0;
+        }
+        for (int k = i + step; k != j; k += step) {
+            cells[k] = color;
+        }
+        return flipped;
+    }
+
+    /**
+     * 方向dirに沿った列をすべて列挙する
+     */
+    private static long[] lines(int dir) {
+        List<Long> lines = new ArrayList<>();
+        long seen = 0;
+        for (int k = 0; k < LENGTH; k++) {
+            if ((seen & (1L << k)) != 0) {
+                continue;
+            }
+            // 列の始点まで戻ってから反対方向にたどる
+            long line = 1L << k;
+            long cur = 1L << k;
+            while ((cur = BitBoard.shift(cur, (dir + 4) % 8)) != 0) {
+                line |= cur;
+            }
+            cur = 1L << k;
+            while ((cur = BitBoard.shift(cur, dir)) != 0) {
+                line |= cur;
+            }
+            seen |= line;
+            lines.add(line);
+        }
+        return lines.stream().mapToLong(Long::longValue).toArray();
+    }
+}
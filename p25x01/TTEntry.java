@@ -0,0 +1,38 @@
+package p25x01;
+
+import ap25.*;
+
+/**
+ * 置換表エントリ
+ */
+class TTEntry {
+    static final int EXACT = 0;
+    static final int LOWER_BOUND = 1;
+    static final int UPPER_BOUND = 2;
+
+    final long hash;
+    final Move bestMove;
+    final int score;
+    final int depth;
+    final int flag;
+
+    public TTEntry(long hash, Move bestMove, int score, int depth, int flag) {
+        this.hash = hash;
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.flag = flag;
+    }
+
+    /**
+     * このエントリだけで探索を打ち切れるか
+     */
+    boolean cutoff(int depth, int alpha, int beta) {
+        if (this.depth < depth) {
+            return false;
+        }
+        return flag == EXACT
+                || (flag == LOWER_BOUND && score >= beta)
+                || (flag == UPPER_BOUND && score <= alpha);
+    }
+}
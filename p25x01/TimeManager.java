@@ -0,0 +1,177 @@
+package p25x01;
+
+import ap25.*;
+import static ap25.Board.*;
+import static ap25.Color.*;
+
+/**
+ * 時間管理
+ *
+ * 1手ごとに「目安時間」（soft）と「上限時間」（hard）を決める。
+ * 反復深化の各反復が終わるたびにノード数と所要時間を記録し、
+ * 実効分岐係数（前の反復とのノード数比）から次の反復の所要時間を予測する。
+ * 予測した終了時刻が目安時間を超えるなら次の反復は始めない。
+ * 最善手が何反復も変わらなければ目安を縮め、ルートの評価値が
+ * 大きく下がったら上限まで目安を延ばす。
+ */
+class TimeManager {
+    private static final int MAX_DEPTH = 32;
+    private static final double DEFAULT_BRANCHING = 3.0;
+    private static final int STABLE_ITERATIONS = 4; // 最善手がこの回数続いたら早めに切り上げる
+    private static final double STABLE_FACTOR = 0.5;
+    private static final int SCORE_DROP = 50; // これ以上評価値が下がったら延長
+    private static final double EXTEND_FACTOR = 2.0;
+
+    private long thinkStart;
+    private long baseSoftLimit;
+    private long softLimit;
+    private long hardLimit;
+
+    private final long[] nodes = new long[MAX_DEPTH + 1];
+    private final long[] times = new long[MAX_DEPTH + 1];
+    private int lastDepth;
+    private Move lastMove;
+    private int lastScore;
+    private int stableCount;
+
+    /**
+     * 思考開始時に呼ぶ: 残り時間から目安と上限を決める
+     */
+    public void startThink(OurBoard board, long remainingTime, int moveCount) {
+        thinkStart = System.currentTimeMillis();
+        int emptyCount = countEmpty(board);
+
+        // 自分の残り手数で均等に割り、局面の重要度で重み付けする
+        long movesLeft = Math.max(2, (emptyCount + 1) / 2);
+        double importance = calculateImportance(board, emptyCount, moveCount);
+        long soft = (long) (remainingTime / movesLeft * importance);
+
+        hardLimit = Math.max(0, Math.min(remainingTime / 2, soft * 3));
+        baseSoftLimit = Math.max(Math.min(50, hardLimit), Math.min(soft, hardLimit));
+        softLimit = baseSoftLimit;
+
+        lastDepth = 0;
+        lastMove = null;
+        stableCount = 0;
+    }
+
+    public long getSoftLimit() {
+        return softLimit;
+    }
+
+    public long getHardLimit() {
+        return hardLimit;
+    }
+
+    public long getHardDeadline() {
+        return thinkStart + hardLimit;
+    }
+
+    /**
+     * 反復が1つ終わったときに呼ぶ
+     */
+    public void iterationDone(int depth, long nodeCount, long time, Move move, int score) {
+        if (depth > MAX_DEPTH) {
+            return;
+        }
+        nodes[depth] = Math.max(1, nodeCount);
+        times[depth] = Math.max(1, time);
+
+        if (lastMove != null && lastMove.equals(move)) {
+            stableCount++;
+        } else {
+            stableCount = 1;
+        }
+
+        softLimit = baseSoftLimit;
+        if (lastDepth > 0 && score < lastScore - SCORE_DROP) {
+            // 評価値が下がった: 読みを深めるために延長
+            softLimit = Math.min(hardLimit, (long) (baseSoftLimit * EXTEND_FACTOR));
+        } else if (stableCount >= STABLE_ITERATIONS) {
+            // 最善手が安定している: 早めに切り上げる
+            softLimit = (long) (baseSoftLimit * STABLE_FACTOR);
+        }
+
+        lastDepth = depth;
+        lastMove = move;
+        lastScore = score;
+    }
+
+    /**
+     * 実効分岐係数（直近2反復のノード数比の幾何平均）
+     */
+    public double effectiveBranchingFactor() {
+        if (lastDepth < 2) {
+            return DEFAULT_BRANCHING;
+        }
+        double ebf = (double) nodes[lastDepth] / nodes[lastDepth - 1];
+        if (lastDepth >= 3) {
+            ebf = Math.sqrt((double) nodes[lastDepth] / nodes[lastDepth - 2]);
+        }
+        return Math.max(1.0, ebf);
+    }
+
+    /**
+     * 次の反復の予測所要時間
+     */
+    public long predictNextIteration() {
+        if (lastDepth == 0) {
+            return 0;
+        }
+        return (long) (times[lastDepth] * effectiveBranchingFactor());
+    }
+
+    /**
+     * 次の深さを始めてよいか（予測終了時刻が目安の1.5倍と上限に収まること）
+     */
+    public boolean canStartIteration() {
+        long elapsed = System.currentTimeMillis() - thinkStart;
+        long finish = elapsed + predictNextIteration();
+        return elapsed < softLimit && finish <= Math.min(hardLimit, softLimit * 3 / 2);
+    }
+
+    private double calculateImportance(OurBoard board, int emptyCount, int moveCount) {
+        double importance = 1.0;
+
+        // 序盤の重要局面
+        if (moveCount <= 8) {
+            importance *= 1.3;
+        }
+
+        // 合法手が少ない場合
+        int moves = board.findLegalMoves(board.getTurn()).size();
+        if (moves <= 3) {
+            importance *= 1.5;
+        }
+
+        // コーナーが絡む場合
+        boolean hasCorner = board.findLegalMoves(board.getTurn()).stream()
+                .anyMatch(move -> isCorner(move.getIndex()));
+        if (hasCorner) {
+            importance *= 1.4;
+        }
+
+        // 終盤重視
+        if (emptyCount <= 12) {
+            importance *= 1.2;
+        }
+        if (emptyCount <= 8) {
+            importance *= 1.5;
+        }
+
+        return Math.min(importance, 2.0);
+    }
+
+    private int countEmpty(OurBoard board) {
+        int count = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            if (board.get(i) == NONE)
+                count++;
+        }
+        return count;
+    }
+
+    private boolean isCorner(int pos) {
+        return pos == 0 || pos == SIZE - 1 || pos == SIZE * (SIZE - 1) || pos == SIZE * SIZE - 1;
+    }
+}
@@ -0,0 +1,49 @@
+package p25x01;
+
+import ap25.*;
+import java.util.*;
+
+/**
+ * 置換表
+ *
+ * キーは Zobrist.hash（ブロックと手番を含む）。ブロック配置の違う対局を
+ * またいで使い回しても、別の局面のエントリを引くことはない。
+ */
+class TranspositionTable {
+    private static final int TABLE_SIZE = 1 << 18; // 256K entries
+    private static final long TABLE_MASK = TABLE_SIZE - 1;
+    private final TTEntry[] table;
+
+    public TranspositionTable() {
+        this.table = new TTEntry[TABLE_SIZE];
+    }
+
+    public void clear() {
+        Arrays.fill(table, null);
+    }
+
+    public TTEntry probe(OurBoard board, Color turn, int depth, int alpha, int beta) {
+        TTEntry entry = lookup(board, turn);
+        return entry != null && entry.cutoff(depth, alpha, beta) ? entry : null;
+    }
+
+    /**
+     * ハッシュが一致するエントリ（深さ・窓は問わない）
+     */
+    public TTEntry lookup(OurBoard board, Color turn) {
+        long hash = Zobrist.hash(board, turn);
+        int index = (int) (hash & TABLE_MASK);
+        TTEntry entry = table[index];
+        return entry != null && entry.hash == hash ? entry : null;
+    }
+
+    public void store(OurBoard board, Color turn, Move bestMove, int score, int depth, int flag) {
+        long hash = Zobrist.hash(board, turn);
+        int index = (int) (hash & TABLE_MASK);
+
+        TTEntry existing = table[index];
+        if (existing == null || existing.depth <= depth) {
+            table[index] = new TTEntry(hash, bestMove, score, depth, flag);
+        }
+    }
+}
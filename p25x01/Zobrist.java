@@ -0,0 +1,62 @@
+package p25x01;
+
+import ap25.*;
+import static ap25.Board.*;
+import static ap25.Color.*;
+import java.util.*;
+
+/**
+ * Zobristハッシュ
+ *
+ * 黒・白・ブロックの配置と手番から64bitのハッシュ値を計算する。
+ * 乱数表は固定シードで生成するので、プロセスをまたいでも同じ値になる。
+ */
+final class Zobrist {
+    private static final long[][] KEYS = new long[3][LENGTH];
+    private static final long WHITE_TO_MOVE;
+
+    static {
+        Random rand = new Random(0x25_0601L);
+        for (int c = 0; c < KEYS.length; c++) {
+            for (int i = 0; i < LENGTH; i++) {
+                KEYS[c][i] = rand.nextLong();
+            }
+        }
+        WHITE_TO_MOVE = rand.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * 盤面と手番のハッシュ値
+     */
+    static long hash(Board board, Color turn) {
+        long hash = turn == WHITE ? WHITE_TO_MOVE : 0;
+        for (int i = 0; i < LENGTH; i++) {
+            Color c = board.get(i);
+            if (c == BLACK) {
+                hash ^= KEYS[0][i];
+            } else if (c == WHITE) {
+                hash ^= KEYS[1][i];
+            } else if (c == BLOCK) {
+                hash ^= KEYS[2][i];
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * ビットボード表現からのハッシュ値（hash(Board, Color) と同じ値）
+     */
+    static long hash(long black, long white, long blocks, Color turn) {
+        long hash = turn == WHITE ? WHITE_TO_MOVE : 0;
+        long[] masks = { black, white, blocks };
+        for (int c = 0; c < masks.length; c++) {
+            for (long m = masks[c]; m != 0; m &= m - 1) {
+                hash ^= KEYS[c][Long.numberOfTrailingZeros(m)];
+            }
+        }
+        return hash;
+    }
+}